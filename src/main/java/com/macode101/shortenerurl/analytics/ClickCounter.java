@@ -0,0 +1,137 @@
+package com.macode101.shortenerurl.analytics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-link click totals kept in memory as striped {@link LongAdder}s and added to
+ * {@code shortened_urls.click_count} with one JDBC batch per flush interval.
+ * Each flush swaps in a fresh generation of adders; the previous generation is drained
+ * once more on the following flush to pick up increments that raced with the swap.
+ * The owners of the flushed links get a new links version in the same transaction, since
+ * link listings show click totals and their ETags must change with them.
+ * Counts not yet flushed are lost on a crash.
+ */
+@Component
+public class ClickCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickCounter.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE shortened_urls SET click_count = click_count + ? WHERE short_code = ?";
+    private static final String BUMP_LINKS_VERSIONS_SQL =
+            "UPDATE users SET links_version = links_version + 1 "
+                    + "WHERE uid IN (SELECT uid FROM shortened_urls WHERE short_code IN (%s))";
+    private static final int BUMP_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final AtomicReference<Map<String, LongAdder>> current = new AtomicReference<>(new ConcurrentHashMap<>());
+    private final Counter flushed;
+    private final Counter failed;
+
+    private volatile Map<String, LongAdder> retired = new ConcurrentHashMap<>();
+
+    public ClickCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.flushed = Counter.builder("clicks.counter.flushed")
+                .description("Clicks added to shortened_urls.click_count")
+                .register(meterRegistry);
+        this.failed = Counter.builder("clicks.counter.flush.failures")
+                .description("Click counter flushes that failed and were retried on the next interval")
+                .register(meterRegistry);
+    }
+
+    public void increment(String shortCode) {
+        Map<String, LongAdder> counters = current.get();
+        LongAdder adder = counters.get(shortCode);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(shortCode, code -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    public long unflushed(String shortCode) {
+        return sum(current.get(), shortCode) + sum(retired, shortCode);
+    }
+
+    @Scheduled(fixedDelayString = "${application.clicks.count-flush-interval:PT5S}")
+    public synchronized void flush() {
+        Map<String, LongAdder> stragglers = retired;
+        Map<String, LongAdder> drained = current.getAndSet(new ConcurrentHashMap<>());
+        retired = drained;
+
+        // Sorted so that concurrent flushes from several nodes lock rows in the same order.
+        Map<String, Long> deltas = new TreeMap<>();
+        collect(stragglers, deltas);
+        collect(drained, deltas);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((shortCode, delta) -> batch.add(new Object[] {delta, shortCode}));
+        List<String> shortCodes = new ArrayList<>(deltas.keySet());
+        try {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+                bumpLinksVersions(shortCodes);
+            });
+            flushed.increment(deltas.values().stream().mapToLong(Long::longValue).sum());
+        } catch (DataAccessException | TransactionException e) {
+            failed.increment();
+            logger.warn("Failed to flush click counts for {} links, retrying next interval: {}",
+                    deltas.size(), e.getMessage());
+            Map<String, LongAdder> counters = current.get();
+            deltas.forEach((shortCode, delta) ->
+                    counters.computeIfAbsent(shortCode, code -> new LongAdder()).add(delta));
+        }
+    }
+
+    private void bumpLinksVersions(List<String> shortCodes) {
+        for (int from = 0; from < shortCodes.size(); from += BUMP_CHUNK_SIZE) {
+            List<String> chunk = shortCodes.subList(from, Math.min(from + BUMP_CHUNK_SIZE, shortCodes.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.update(BUMP_LINKS_VERSIONS_SQL.formatted(placeholders), chunk.toArray());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        flush();
+    }
+
+    private static void collect(Map<String, LongAdder> counters, Map<String, Long> deltas) {
+        counters.forEach((shortCode, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.merge(shortCode, delta, Long::sum);
+            }
+        });
+    }
+
+    private static long sum(Map<String, LongAdder> counters, String shortCode) {
+        LongAdder adder = counters.get(shortCode);
+        return adder == null ? 0 : adder.sum();
+    }
+}
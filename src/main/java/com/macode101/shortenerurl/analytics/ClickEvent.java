@@ -0,0 +1,11 @@
+package com.macode101.shortenerurl.analytics;
+
+import java.time.LocalDateTime;
+
+public record ClickEvent(
+    String shortCode,
+    LocalDateTime clickedAt,
+    String referrer,
+    String userAgent,
+    String remoteAddress
+) {}
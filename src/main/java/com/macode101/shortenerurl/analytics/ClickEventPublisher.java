@@ -0,0 +1,56 @@
+package com.macode101.shortenerurl.analytics;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.util.BoundedRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Captures click events on the redirect path into a bounded lock-free ring buffer.
+ * Publishing never blocks: when the buffer is full the event is dropped and counted.
+ */
+@Component
+public class ClickEventPublisher {
+
+    private final BoundedRingBuffer<ClickEvent> buffer;
+    private final boolean enabled;
+    private final Counter dropped;
+
+    public ClickEventPublisher(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        ApplicationConfiguration.Clicks config = applicationConfiguration.getClicks();
+        this.enabled = config.isEnabled();
+        this.buffer = new BoundedRingBuffer<>(config.getRingSize());
+        this.dropped = Counter.builder("clicks.dropped")
+                .description("Click events discarded because the ring buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("clicks.buffer.size", buffer, BoundedRingBuffer::size)
+                .description("Click events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void publish(String shortCode, HttpServletRequest request) {
+        if (!enabled) {
+            return;
+        }
+        ClickEvent event = new ClickEvent(
+                shortCode,
+                LocalDateTime.now(),
+                request.getHeader(HttpHeaders.REFERER),
+                request.getHeader(HttpHeaders.USER_AGENT),
+                request.getRemoteAddr()
+        );
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    int drainTo(List<ClickEvent> target, int maxEvents) {
+        return buffer.drainTo(target, maxEvents);
+    }
+}
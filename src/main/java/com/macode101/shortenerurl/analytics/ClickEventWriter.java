@@ -0,0 +1,131 @@
+package com.macode101.shortenerurl.analytics;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.entity.LinkClick;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains {@link ClickEventPublisher} in fixed-size batches into {@code link_clicks}
+ * using JDBC batch inserts, updating {@link ClickRollups} in the same transaction.
+ * Client IPs are only stored as salted SHA-256 hashes.
+ */
+@Component
+public class ClickEventWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickEventWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO link_clicks (short_code, clicked_at, referrer, user_agent, ip_hash) VALUES (?, ?, ?, ?, ?)";
+
+    private final ClickEventPublisher publisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final ClickRollups clickRollups;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final String ipHashSalt;
+    private final Counter written;
+    private final Counter failed;
+
+    public ClickEventWriter(
+            ClickEventPublisher publisher,
+            JdbcTemplate jdbcTemplate,
+            ClickRollups clickRollups,
+            PlatformTransactionManager transactionManager,
+            ApplicationConfiguration applicationConfiguration,
+            MeterRegistry meterRegistry
+    ) {
+        this.publisher = publisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clickRollups = clickRollups;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = applicationConfiguration.getClicks().getBatchSize();
+        this.ipHashSalt = applicationConfiguration.getClicks().requireIpHashSalt();
+        this.written = Counter.builder("clicks.written")
+                .description("Click events persisted to link_clicks")
+                .register(meterRegistry);
+        this.failed = Counter.builder("clicks.failed")
+                .description("Click events lost because a batch insert failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.clicks.flush-interval:PT1S}")
+    public void flush() {
+        List<ClickEvent> batch = new ArrayList<>(batchSize);
+        while (publisher.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<ClickEvent> batch) {
+        try {
+            try {
+                transaction.executeWithoutResult(status -> insert(batch));
+            } catch (DuplicateKeyException e) {
+                // Another node created one of our rollup buckets first; the retry updates it instead.
+                transaction.executeWithoutResult(status -> insert(batch));
+            }
+            written.increment(batch.size());
+        } catch (DataAccessException | TransactionException e) {
+            failed.increment(batch.size());
+            logger.warn("Dropped {} click events after failed batch insert: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void insert(List<ClickEvent> batch) {
+        MessageDigest digest = sha256();
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, event) -> {
+            statement.setString(1, event.shortCode());
+            statement.setTimestamp(2, Timestamp.valueOf(event.clickedAt()));
+            statement.setString(3, truncate(event.referrer(), LinkClick.REFERRER_LENGTH));
+            statement.setString(4, truncate(event.userAgent(), LinkClick.USER_AGENT_LENGTH));
+            statement.setString(5, hashAddress(digest, event.remoteAddress()));
+        });
+        clickRollups.record(batch);
+    }
+
+    private String hashAddress(MessageDigest digest, String remoteAddress) {
+        if (remoteAddress == null) {
+            return null;
+        }
+        digest.reset();
+        digest.update(ipHashSalt.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest(remoteAddress.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
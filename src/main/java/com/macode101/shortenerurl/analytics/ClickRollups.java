@@ -0,0 +1,164 @@
+package com.macode101.shortenerurl.analytics;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.ClickBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Click totals per short code in minute, hour and day buckets ({@code link_click_rollups}).
+ * Captured clicks are added to minute buckets as they are written; a scheduled compaction
+ * then moves minute buckets older than their retention into hour buckets and old hour
+ * buckets into day buckets. A link therefore has at most a few hours of minute rows and a
+ * few days of hour rows, and a stats query reads a bounded number of rows however old the
+ * link is. Rows are locked while they are compacted, so a concurrent increment of the same
+ * bucket either lands before the move or recreates the bucket for the next run.
+ */
+@Component
+public class ClickRollups {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickRollups.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE link_click_rollups SET clicks = clicks + ? WHERE short_code = ? AND granularity = ? AND bucket_start = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO link_click_rollups (short_code, granularity, bucket_start, clicks) VALUES (?, ?, ?, ?)";
+    private static final String LOCK_EXPIRED_SQL =
+            "SELECT id, short_code, bucket_start, clicks FROM link_click_rollups "
+                    + "WHERE granularity = ? AND bucket_start < ? ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String DELETE_SQL = "DELETE FROM link_click_rollups WHERE id = ?";
+    private static final String QUERY_SQL =
+            "SELECT granularity, bucket_start, clicks FROM link_click_rollups "
+                    + "WHERE short_code = ? AND bucket_start >= ? AND bucket_start < ?";
+
+    private static final Comparator<Bucket> LOCK_ORDER =
+            Comparator.comparing(Bucket::shortCode).thenComparing(Bucket::start);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ApplicationConfiguration.Rollups config;
+    private final Counter compacted;
+
+    public ClickRollups(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationConfiguration applicationConfiguration,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.config = applicationConfiguration.getClicks().getRollups();
+        this.compacted = Counter.builder("clicks.rollups.compacted")
+                .description("Rollup rows folded into a coarser granularity")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds {@code events} to their minute buckets. Must run inside the caller's transaction.
+     */
+    public void record(List<ClickEvent> events) {
+        Map<Bucket, Long> minutes = new TreeMap<>(LOCK_ORDER);
+        for (ClickEvent event : events) {
+            Bucket bucket = new Bucket(event.shortCode(), RollupGranularity.MINUTE.truncate(event.clickedAt()));
+            minutes.merge(bucket, 1L, Long::sum);
+        }
+        add(RollupGranularity.MINUTE, minutes);
+    }
+
+    /**
+     * Click counts of {@code shortCode} in {@code [from, to)} bucketed by {@code granularity}.
+     * Rows that have already been compacted past the requested granularity are reported at
+     * their coarser bucket.
+     */
+    public List<ClickBucket> query(String shortCode, LocalDateTime from, LocalDateTime to, RollupGranularity granularity) {
+        Map<LocalDateTime, Long> series = new TreeMap<>();
+        jdbcTemplate.query(QUERY_SQL, rs -> {
+            RollupGranularity stored = RollupGranularity.valueOf(rs.getString(1));
+            LocalDateTime start = rs.getTimestamp(2).toLocalDateTime();
+            LocalDateTime bucket = stored.isFinerThan(granularity) ? granularity.truncate(start) : start;
+            series.merge(bucket, rs.getLong(3), Long::sum);
+        }, shortCode, Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+        List<ClickBucket> buckets = new ArrayList<>(series.size());
+        series.forEach((start, clicks) -> buckets.add(new ClickBucket(start, clicks)));
+        return buckets;
+    }
+
+    @Scheduled(fixedDelayString = "${application.clicks.rollups.compaction-interval:PT5M}")
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        compact(RollupGranularity.MINUTE, RollupGranularity.HOUR,
+                RollupGranularity.HOUR.truncate(now.minus(config.getMinuteRetention())));
+        compact(RollupGranularity.HOUR, RollupGranularity.DAY,
+                RollupGranularity.DAY.truncate(now.minus(config.getHourRetention())));
+    }
+
+    private void compact(RollupGranularity source, RollupGranularity target, LocalDateTime cutoff) {
+        try {
+            int moved;
+            do {
+                moved = transaction.execute(status -> compactBatch(source, target, cutoff));
+                compacted.increment(moved);
+            } while (moved == config.getCompactionBatchSize());
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Failed to compact {} click rollups, retrying next run: {}", source, e.getMessage());
+        }
+    }
+
+    private int compactBatch(RollupGranularity source, RollupGranularity target, LocalDateTime cutoff) {
+        List<Long> ids = new ArrayList<>();
+        Map<Bucket, Long> coarse = new TreeMap<>(LOCK_ORDER);
+        jdbcTemplate.query(LOCK_EXPIRED_SQL, rs -> {
+            ids.add(rs.getLong(1));
+            Bucket bucket = new Bucket(rs.getString(2), target.truncate(rs.getTimestamp(3).toLocalDateTime()));
+            coarse.merge(bucket, rs.getLong(4), Long::sum);
+        }, source.name(), Timestamp.valueOf(cutoff), config.getCompactionBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        add(target, coarse);
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids.stream().map(id -> new Object[] {id}).toList());
+        return ids.size();
+    }
+
+    private void add(RollupGranularity granularity, Map<Bucket, Long> increments) {
+        List<Map.Entry<Bucket, Long>> entries = new ArrayList<>(increments.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, entries.stream()
+                .map(entry -> new Object[] {
+                        entry.getValue(), entry.getKey().shortCode(), granularity.name(), Timestamp.valueOf(entry.getKey().start())
+                })
+                .toList());
+
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Map.Entry<Bucket, Long> entry = entries.get(i);
+                missing.add(new Object[] {
+                        entry.getKey().shortCode(), granularity.name(), Timestamp.valueOf(entry.getKey().start()), entry.getValue()
+                });
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing);
+        }
+    }
+
+    private record Bucket(String shortCode, LocalDateTime start) {}
+}
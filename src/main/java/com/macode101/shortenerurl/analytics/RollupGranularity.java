@@ -0,0 +1,34 @@
+package com.macode101.shortenerurl.analytics;
+
+import com.macode101.shortenerurl.exception.ValidationException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public boolean isFinerThan(RollupGranularity other) {
+        return ordinal() < other.ordinal();
+    }
+
+    public static RollupGranularity parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unsupported granularity '" + value + "', expected one of minute, hour, day");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.macode101.shortenerurl.analytics;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.entity.LinkVisitorSketch;
+import com.macode101.shortenerurl.repository.LinkVisitorSketchRepository;
+import com.macode101.shortenerurl.util.Hashing;
+import com.macode101.shortenerurl.util.HyperLogLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Approximate unique visitors per link and day. Each redirect adds a salted hash of the
+ * client address and user agent to an in-memory HyperLogLog for its (short code, day)
+ * bucket; no visitor identifier is ever stored. The salt must be the same on every node
+ * for a visitor to be counted once. Buckets touched since the last flush are
+ * merged into {@code link_visitor_sketches} under a row lock, so every node contributes
+ * to the same persisted sketch. Because merging is idempotent, a failed flush simply
+ * merges its sketches back for the next attempt. Nothing is recorded or flushed while
+ * {@code application.clicks.enabled} is off.
+ */
+@Component
+public class UniqueVisitorTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniqueVisitorTracker.class);
+
+    private static final Comparator<BucketKey> FLUSH_ORDER =
+            Comparator.comparing(BucketKey::shortCode).thenComparing(BucketKey::day);
+
+    private final LinkVisitorSketchRepository sketchRepository;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final String salt;
+    private final AtomicReference<Map<BucketKey, HyperLogLog>> current = new AtomicReference<>(new ConcurrentHashMap<>());
+    private final Counter failed;
+
+    private volatile Map<BucketKey, HyperLogLog> retired = new ConcurrentHashMap<>();
+
+    public UniqueVisitorTracker(
+            LinkVisitorSketchRepository sketchRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationConfiguration applicationConfiguration,
+            MeterRegistry meterRegistry
+    ) {
+        this.sketchRepository = sketchRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = applicationConfiguration.getClicks().isEnabled();
+        this.salt = applicationConfiguration.getClicks().requireIpHashSalt();
+        this.failed = Counter.builder("clicks.visitors.flush.failures")
+                .description("Unique visitor sketch flushes that failed and were retried on the next interval")
+                .register(meterRegistry);
+    }
+
+    public void record(String shortCode, HttpServletRequest request) {
+        if (!enabled) {
+            return;
+        }
+        String fingerprint = salt + '\n' + request.getRemoteAddr() + '\n' + request.getHeader(HttpHeaders.USER_AGENT);
+        sketch(current.get(), new BucketKey(shortCode, LocalDate.now()))
+                .add(Hashing.hash64(fingerprint, Hashing.SEED_PRIMARY));
+    }
+
+    /**
+     * Merges the persisted daily sketches of {@code shortCode} in {@code [from, to]} with
+     * this node's not yet flushed buckets.
+     */
+    public HyperLogLog visitors(String shortCode, LocalDate from, LocalDate to) {
+        HyperLogLog merged = new HyperLogLog(LinkVisitorSketch.PRECISION);
+        for (LinkVisitorSketch stored : sketchRepository.findByShortCodeAndBucketDateBetween(shortCode, from, to)) {
+            merged.merge(HyperLogLog.fromBytes(stored.getRegisters()));
+        }
+        mergeLocal(current.get(), shortCode, from, to, merged);
+        mergeLocal(retired, shortCode, from, to, merged);
+        return merged;
+    }
+
+    @Scheduled(fixedDelayString = "${application.clicks.visitor-flush-interval:PT30S}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        Map<BucketKey, HyperLogLog> stragglers = retired;
+        Map<BucketKey, HyperLogLog> drained = current.getAndSet(new ConcurrentHashMap<>());
+        stragglers.forEach((key, sketch) -> sketch(drained, key).merge(sketch));
+        retired = drained;
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        // Sorted so that concurrent flushes from several nodes lock rows in the same order.
+        List<Map.Entry<BucketKey, HyperLogLog>> buckets = drained.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(FLUSH_ORDER))
+                .toList();
+        try {
+            transaction.executeWithoutResult(status -> buckets.forEach(bucket -> persist(bucket.getKey(), bucket.getValue())));
+        } catch (DataAccessException | TransactionException e) {
+            failed.increment();
+            logger.warn("Failed to flush {} unique visitor sketches, retrying next interval: {}",
+                    buckets.size(), e.getMessage());
+            Map<BucketKey, HyperLogLog> next = current.get();
+            buckets.forEach(bucket -> sketch(next, bucket.getKey()).merge(bucket.getValue()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void persist(BucketKey key, HyperLogLog sketch) {
+        LinkVisitorSketch stored = sketchRepository.findByShortCodeAndBucketDate(key.shortCode(), key.day())
+                .orElseGet(() -> {
+                    LinkVisitorSketch created = new LinkVisitorSketch();
+                    created.setShortCode(key.shortCode());
+                    created.setBucketDate(key.day());
+                    return created;
+                });
+        HyperLogLog merged = new HyperLogLog(LinkVisitorSketch.PRECISION);
+        if (stored.getRegisters() != null) {
+            merged.merge(HyperLogLog.fromBytes(stored.getRegisters()));
+        }
+        merged.merge(sketch);
+        stored.setRegisters(merged.toBytes());
+        stored.setUpdatedAt(LocalDateTime.now());
+        sketchRepository.save(stored);
+    }
+
+    private static void mergeLocal(
+            Map<BucketKey, HyperLogLog> sketches, String shortCode, LocalDate from, LocalDate to, HyperLogLog target
+    ) {
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            HyperLogLog local = sketches.get(new BucketKey(shortCode, day));
+            if (local != null) {
+                target.merge(local);
+            }
+        }
+    }
+
+    private static HyperLogLog sketch(Map<BucketKey, HyperLogLog> sketches, BucketKey key) {
+        HyperLogLog sketch = sketches.get(key);
+        return sketch != null ? sketch : sketches.computeIfAbsent(key, k -> new HyperLogLog(LinkVisitorSketch.PRECISION));
+    }
+
+    private record BucketKey(String shortCode, LocalDate day) {}
+}
@@ -0,0 +1,100 @@
+package com.macode101.shortenerurl.cache;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.HotKeyResponse;
+import com.macode101.shortenerurl.util.CountMinSketch;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streaming heavy-hitter detection for redirect traffic. Every redirect is counted in a
+ * count-min sketch; codes whose estimate beats the smallest entry of a bounded top-K
+ * table are admitted to it. Both structures are halved on every decay tick, so the
+ * table follows current rather than all-time popularity. Its members are pinned in
+ * {@link RedirectCache} where size-based eviction cannot touch them.
+ */
+@Component
+public class HotKeyTracker {
+
+    private final CountMinSketch sketch;
+    private final Map<String, AtomicLong> topKeys = new ConcurrentHashMap<>();
+    private final Object admissionLock = new Object();
+    private final RedirectCache redirectCache;
+    private final int capacity;
+    private final int minHits;
+
+    private volatile long admissionThreshold;
+
+    public HotKeyTracker(ApplicationConfiguration applicationConfiguration, RedirectCache redirectCache) {
+        ApplicationConfiguration.HotKeys config = applicationConfiguration.getRedirect().getHotKeys();
+        this.sketch = new CountMinSketch(config.getSketchWidth(), config.getSketchDepth());
+        this.redirectCache = redirectCache;
+        this.capacity = config.getTopK();
+        this.minHits = config.getMinHits();
+        this.admissionThreshold = minHits;
+    }
+
+    public void record(String shortCode) {
+        long estimate = sketch.add(shortCode);
+        // A plain read and a CAS keep the hit path for tracked codes free of map bin locks.
+        AtomicLong tracked = topKeys.get(shortCode);
+        if (tracked != null) {
+            tracked.accumulateAndGet(estimate, Math::max);
+            return;
+        }
+        if (estimate >= admissionThreshold) {
+            admit(shortCode, estimate);
+        }
+    }
+
+    public List<HotKeyResponse> topKeys() {
+        // Mapped before sorting so that counts moving under concurrent records cannot upset the sort.
+        return topKeys.entrySet().stream()
+                .map(entry -> new HotKeyResponse(entry.getKey(), entry.getValue().get(), redirectCache.isPinned(entry.getKey())))
+                .sorted(Comparator.comparingLong(HotKeyResponse::estimatedHits).reversed())
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${application.redirect.hot-keys.pin-interval:PT10S}")
+    public void pinHotKeys() {
+        redirectCache.pin(topKeys.keySet());
+    }
+
+    @Scheduled(fixedDelayString = "${application.redirect.hot-keys.decay-interval:PT1M}")
+    public void decay() {
+        sketch.decay();
+        synchronized (admissionLock) {
+            topKeys.values().forEach(count -> count.updateAndGet(value -> value >>> 1));
+            topKeys.values().removeIf(count -> count.get() < minHits);
+            admissionThreshold = currentThreshold();
+        }
+    }
+
+    private void admit(String shortCode, long estimate) {
+        synchronized (admissionLock) {
+            if (estimate < admissionThreshold) {
+                return;
+            }
+            topKeys.computeIfAbsent(shortCode, code -> new AtomicLong()).accumulateAndGet(estimate, Math::max);
+            if (topKeys.size() > capacity) {
+                topKeys.entrySet().stream()
+                        .min(Comparator.comparingLong(entry -> entry.getValue().get()))
+                        .ifPresent(weakest -> topKeys.remove(weakest.getKey()));
+            }
+            admissionThreshold = currentThreshold();
+        }
+    }
+
+    private long currentThreshold() {
+        if (topKeys.size() < capacity) {
+            return minHits;
+        }
+        long weakest = topKeys.values().stream().mapToLong(AtomicLong::get).min().orElse(minHits);
+        return Math.max(minHits, weakest + 1);
+    }
+}
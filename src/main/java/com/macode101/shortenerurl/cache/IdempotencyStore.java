@@ -0,0 +1,108 @@
+package com.macode101.shortenerurl.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.exception.UrlShortenerException;
+import com.macode101.shortenerurl.exception.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the first successful response per (user, operation, Idempotency-Key) for a
+ * bounded time so that client retries are answered without executing again. A retry that
+ * arrives while the first request is still running waits for its result. Failed executions
+ * are not remembered. Reusing a key with a different request is rejected.
+ * Entries are weighed by response size, so a bulk response counts once per item.
+ */
+@Component
+public class IdempotencyStore {
+
+    static final String CACHE_NAME = "idempotency";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<Key, Entry> responses;
+    private final long waitTimeoutMillis;
+
+    public IdempotencyStore(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        ApplicationConfiguration.Idempotency config = applicationConfiguration.getIdempotency();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(config.getMaximumWeight())
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        this.waitTimeoutMillis = config.getWaitTimeout().toMillis();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+
+    /**
+     * Runs {@code action} once per key and returns its result, or the remembered result of an
+     * earlier call with the same key.
+     *
+     * @param request compared with {@code equals} against the request that first used the key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String userId, String operation, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Key key = new Key(userId, operation, idempotencyKey);
+        Entry created = new Entry(request, new CompletableFuture<>(), 1);
+        Entry existing = responses.asMap().putIfAbsent(key, created);
+        if (existing != null) {
+            if (!existing.request().equals(request)) {
+                throw new ValidationException("Idempotency-Key was already used with a different request");
+            }
+            return (T) await(existing.response());
+        }
+
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            responses.asMap().remove(key, created);
+            created.response().completeExceptionally(e);
+            throw e;
+        }
+        created.response().complete(result);
+        // Re-insert so the entry is weighed by the size of the finished response.
+        responses.asMap().replace(key, created, new Entry(request, created.response(), weigh(result)));
+        return result;
+    }
+
+    private Object await(CompletableFuture<Object> response) {
+        try {
+            return response.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new UrlShortenerException("Timed out waiting for the in-flight request with the same Idempotency-Key", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new UrlShortenerException("In-flight request with the same Idempotency-Key failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UrlShortenerException("Interrupted waiting for the in-flight request with the same Idempotency-Key", e);
+        }
+    }
+
+    private static int weigh(Object response) {
+        return response instanceof Collection<?> items ? Math.max(1, items.size()) : 1;
+    }
+
+    private record Key(String userId, String operation, String idempotencyKey) {}
+
+    private record Entry(Object request, CompletableFuture<Object> response, int weight) {}
+}
@@ -0,0 +1,183 @@
+package com.macode101.shortenerurl.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.RedirectTarget;
+import com.macode101.shortenerurl.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * Near-cache in front of short code resolution. Holds both active and deactivated
+ * targets so that a redirect to a deleted link does not hit the database either.
+ * Concurrent misses on the same code share a single load. Codes reported hot by
+ * {@link HotKeyTracker} are additionally pinned in a tier that is never size-evicted;
+ * pinned entries still expire with their cache entry so remote changes are picked up.
+ * An entry lives for the configured TTL, or only until its link expires if that is sooner;
+ * Caffeine keeps these per-entry deadlines on a hierarchical timing wheel, so scheduling and
+ * expiring each one is O(1) however many are pending.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics tagged {@code cache=redirect}.
+ */
+@Component
+public class RedirectCache {
+
+    static final String CACHE_NAME = "redirect";
+
+    private final Cache<String, RedirectTarget> cache;
+    private final SingleFlight<String, RedirectTarget> loads;
+    private final Map<String, PinnedTarget> pinned = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Policy.VarExpiration<String, RedirectTarget> expiration;
+    private final Duration ttl;
+
+    public RedirectCache(ApplicationConfiguration applicationConfiguration, MeterRegistry meterRegistry) {
+        ApplicationConfiguration.Redirect redirect = applicationConfiguration.getRedirect();
+        ApplicationConfiguration.Cache config = redirect.getCache();
+        this.ttl = config.getTtl();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new LinkExpiry())
+                .recordStats()
+                .build();
+        this.loads = new SingleFlight<>(redirect.getLoadTimeout());
+        this.expiration = cache.policy().expireVariably().orElseThrow();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        FunctionCounter.builder("redirect.loads.coalesced", loads, SingleFlight::coalescedCount)
+                .description("Redirect cache misses served by joining an in-flight load instead of querying the database")
+                .register(meterRegistry);
+        Gauge.builder("redirect.cache.pinned", pinned, Map::size)
+                .description("Hot short codes held in the never size-evicted cache tier")
+                .register(meterRegistry);
+    }
+
+    public RedirectTarget get(String shortCode, Function<String, RedirectTarget> loader) {
+        return get(shortCode, code -> null, loader);
+    }
+
+    /**
+     * @param localLookup resolves a miss without the database, or returns {@code null}; runs on every caller
+     * @param loader queries the database; concurrent misses of the same code share one call
+     */
+    public RedirectTarget get(
+            String shortCode, Function<String, RedirectTarget> localLookup, Function<String, RedirectTarget> loader
+    ) {
+        PinnedTarget hot = pinned.get(shortCode);
+        if (hot != null && !hot.isExpired()) {
+            return hot.target();
+        }
+        RedirectTarget cached = cache.getIfPresent(shortCode);
+        if (cached != null) {
+            return cached;
+        }
+        RedirectTarget local = load(shortCode, localLookup);
+        if (local != null) {
+            return local;
+        }
+        return loads.execute(shortCode, code -> load(code, loader));
+    }
+
+    public void invalidate(String shortCode) {
+        invalidations.incrementAndGet();
+        pinned.remove(shortCode);
+        cache.invalidate(shortCode);
+    }
+
+    public void invalidateAll(Collection<String> shortCodes) {
+        invalidations.incrementAndGet();
+        pinned.keySet().removeAll(shortCodes);
+        cache.invalidateAll(shortCodes);
+    }
+
+    public void pin(Collection<String> hotCodes) {
+        Set<String> hot = new HashSet<>(hotCodes);
+        pinned.keySet().retainAll(hot);
+        for (String shortCode : hot) {
+            PinnedTarget current = pinned.get(shortCode);
+            if (current != null && !current.isExpired()) {
+                continue;
+            }
+            long stamp = invalidations.get();
+            RedirectTarget target = cache.policy().getIfPresentQuietly(shortCode);
+            long remaining = expiration.getExpiresAfter(shortCode, TimeUnit.NANOSECONDS).orElse(0);
+            if (target == null || remaining <= 0) {
+                pinned.remove(shortCode);
+                continue;
+            }
+            pinned.put(shortCode, new PinnedTarget(target, System.nanoTime() + remaining));
+            if (invalidations.get() != stamp) {
+                pinned.remove(shortCode);
+            }
+        }
+    }
+
+    public boolean isPinned(String shortCode) {
+        return pinned.containsKey(shortCode);
+    }
+
+    private RedirectTarget load(String shortCode, Function<String, RedirectTarget> loader) {
+        long stamp = invalidations.get();
+        RedirectTarget target = loader.apply(shortCode);
+        if (target == null) {
+            return null;
+        }
+        cache.put(shortCode, target);
+        // An invalidation that raced with the load may have been applied before our put,
+        // in which case the value we just cached could predate it.
+        if (invalidations.get() != stamp) {
+            cache.invalidate(shortCode);
+        }
+        return target;
+    }
+
+    private long lifetimeNanos(RedirectTarget target) {
+        if (target.expiresAt() == null) {
+            return ttl.toNanos();
+        }
+        // An already expired target is kept for the full TTL; it stays expired.
+        Duration untilExpiry = Duration.between(LocalDateTime.now(), target.expiresAt());
+        return untilExpiry.isNegative() || untilExpiry.isZero() || untilExpiry.compareTo(ttl) >= 0
+                ? ttl.toNanos()
+                : untilExpiry.toNanos();
+    }
+
+    private class LinkExpiry implements Expiry<String, RedirectTarget> {
+
+        @Override
+        public long expireAfterCreate(String shortCode, RedirectTarget target, long currentTime) {
+            return lifetimeNanos(target);
+        }
+
+        @Override
+        public long expireAfterUpdate(String shortCode, RedirectTarget target, long currentTime, long currentDuration) {
+            return lifetimeNanos(target);
+        }
+
+        @Override
+        public long expireAfterRead(String shortCode, RedirectTarget target, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private record PinnedTarget(RedirectTarget target, long expiresAtNanos) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.macode101.shortenerurl.cache;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import com.macode101.shortenerurl.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Membership filter over every issued short code, used to answer definite misses on
+ * {@code /r/*} without a database round trip. Codes created on this node are added
+ * immediately; codes created elsewhere are picked up by {@link #refresh()}, and the
+ * whole filter is rebuilt from {@code shortened_urls} on a longer interval.
+ * Until the first build completes every lookup is treated as a possible hit.
+ * <p>
+ * A code created on another node since the last refresh is missing from the filter, so a
+ * negative first refreshes early if the last refresh is older than the recheck interval.
+ * That bounds the window in which a new code is answered as not found to the recheck
+ * interval, at the cost of at most one recent-codes query per interval however many
+ * misses arrive.
+ */
+@Component
+public class ShortCodeBloomFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortCodeBloomFilter.class);
+
+    private final ShortenedUrlRepository shortenedUrlRepository;
+    private final ApplicationConfiguration.BloomFilter config;
+    private final Counter rejectedLookups;
+    private final Object refreshLock = new Object();
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter pending;
+    private volatile LocalDateTime lastRefresh;
+    private volatile long refreshedAtNanos;
+
+    public ShortCodeBloomFilter(
+            ShortenedUrlRepository shortenedUrlRepository,
+            ApplicationConfiguration applicationConfiguration,
+            MeterRegistry meterRegistry
+    ) {
+        this.shortenedUrlRepository = shortenedUrlRepository;
+        this.config = applicationConfiguration.getRedirect().getBloomFilter();
+        this.rejectedLookups = Counter.builder("redirect.bloom.rejected")
+                .description("Redirect lookups answered as not found without querying the database")
+                .register(meterRegistry);
+        Gauge.builder("redirect.bloom.bits", this, f -> f.filter == null ? 0 : f.filter.bitSize())
+                .description("Size of the short code Bloom filter in bits")
+                .register(meterRegistry);
+        Gauge.builder("redirect.bloom.elements", this, f -> f.filter == null ? 0 : f.filter.approximateElementCount())
+                .description("Approximate number of short codes in the Bloom filter")
+                .register(meterRegistry);
+    }
+
+    public boolean mightContain(String shortCode) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(shortCode) || containsAfterEarlyRefresh(shortCode)) {
+            return true;
+        }
+        rejectedLookups.increment();
+        return false;
+    }
+
+    private boolean containsAfterEarlyRefresh(String shortCode) {
+        long recheckNanos = config.getRecheckInterval().toNanos();
+        if (System.nanoTime() - refreshedAtNanos < recheckNanos) {
+            return false;
+        }
+        synchronized (refreshLock) {
+            if (System.nanoTime() - refreshedAtNanos >= recheckNanos) {
+                try {
+                    refresh();
+                } catch (DataAccessException e) {
+                    // Not retried before the next interval, so that an outage does not turn every miss into a query.
+                    refreshedAtNanos = System.nanoTime();
+                    logger.warn("Failed to refresh short code Bloom filter on a miss: {}", e.getMessage());
+                    return false;
+                }
+            }
+        }
+        return filter.mightContain(shortCode);
+    }
+
+    public void put(String shortCode) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(shortCode);
+        }
+        BloomFilter next = pending;
+        if (next != null) {
+            next.put(shortCode);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            fixedDelayString = "${application.redirect.bloom-filter.rebuild-interval:PT1H}",
+            initialDelayString = "${application.redirect.bloom-filter.rebuild-interval:PT1H}"
+    )
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        LocalDateTime snapshotTime = LocalDateTime.now();
+
+        long expectedInsertions = Math.max(config.getExpectedInsertions(), shortenedUrlRepository.count() * 2);
+        BloomFilter next = BloomFilter.create(expectedInsertions, config.getFalsePositiveRate());
+        pending = next;
+        try (Stream<String> shortCodes = shortenedUrlRepository.streamAllShortCodes()) {
+            shortCodes.forEach(next::put);
+            filter = next;
+            lastRefresh = snapshotTime;
+            refreshedAtNanos = startedAt;
+        } finally {
+            pending = null;
+        }
+
+        logger.info("Rebuilt short code Bloom filter with {} bits in {} ms",
+                next.bitSize(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${application.redirect.bloom-filter.refresh-interval:PT5S}")
+    public void refresh() {
+        if (filter == null) {
+            return;
+        }
+        synchronized (refreshLock) {
+            long startedAt = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = lastRefresh.minus(config.getRefreshOverlap());
+            shortenedUrlRepository.findShortCodesCreatedAfter(since).forEach(this::put);
+            lastRefresh = now;
+            refreshedAtNanos = startedAt;
+        }
+    }
+}
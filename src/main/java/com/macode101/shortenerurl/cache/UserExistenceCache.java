@@ -0,0 +1,58 @@
+package com.macode101.shortenerurl.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which user ids are known to exist so that link creation by an authenticated
+ * caller does not re-read {@code users} on every request. Only positive answers are cached.
+ * Removing an account must call {@link #invalidate}; other nodes forget the user once the
+ * entry expires.
+ */
+@Component
+public class UserExistenceCache {
+
+    static final String CACHE_NAME = "user-existence";
+
+    private final UserRepository userRepository;
+    private final Cache<String, Boolean> known;
+
+    public UserExistenceCache(
+            UserRepository userRepository,
+            ApplicationConfiguration applicationConfiguration,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        ApplicationConfiguration.Cache config = applicationConfiguration.getUsers().getExistenceCache();
+        this.known = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, known, CACHE_NAME);
+    }
+
+    public boolean exists(String uid) {
+        if (known.getIfPresent(uid) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsByUid(uid);
+        if (exists) {
+            known.put(uid, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void markExisting(String uid) {
+        known.put(uid, Boolean.TRUE);
+    }
+
+    public void invalidate(String uid) {
+        known.invalidate(uid);
+    }
+}
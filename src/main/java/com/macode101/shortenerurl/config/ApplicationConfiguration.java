@@ -1,5 +1,6 @@
 package com.macode101.shortenerurl.config;
 
+import java.time.Duration;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -13,6 +14,14 @@ public class ApplicationConfiguration {
 
     private JWT jwt = new JWT();
     private String baseUrl;
+    private Redirect redirect = new Redirect();
+    private Clicks clicks = new Clicks();
+    private ShortCode shortCode = new ShortCode();
+    private WriteBehind writeBehind = new WriteBehind();
+    private Users users = new Users();
+    private Idempotency idempotency = new Idempotency();
+    private Listing listing = new Listing();
+    private Expiration expiration = new Expiration();
 
     @Getter
     @Setter
@@ -20,4 +29,133 @@ public class ApplicationConfiguration {
         private String secret;
         private Long expiration;
     }
+
+    @Getter
+    @Setter
+    public static class Redirect {
+        private Cache cache = new Cache();
+        private BloomFilter bloomFilter = new BloomFilter();
+        private Snapshot snapshot = new Snapshot();
+        private HotKeys hotKeys = new HotKeys();
+        private Duration loadTimeout = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private long maximumSize = 100_000;
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Users {
+        private Cache existenceCache = new Cache();
+    }
+
+    @Getter
+    @Setter
+    public static class Listing {
+        private int defaultPageSize = 100;
+        private int maxPageSize = 1_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Expiration {
+        private int batchSize = 1_000;
+        private int maxBatchesPerRun = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        private long maximumWeight = 100_000;
+        private Duration ttl = Duration.ofHours(24);
+        private Duration waitTimeout = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class BloomFilter {
+        private boolean enabled = true;
+        private long expectedInsertions = 10_000_000;
+        private double falsePositiveRate = 0.01;
+        private Duration refreshOverlap = Duration.ofMinutes(1);
+        private Duration recheckInterval = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Snapshot {
+        private boolean enabled = false;
+        private String path = "data/redirect-snapshot.bin";
+        private Duration deltaOverlap = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class HotKeys {
+        private int topK = 100;
+        private int minHits = 10;
+        private int sketchWidth = 65_536;
+        private int sketchDepth = 4;
+    }
+
+    @Getter
+    @Setter
+    public static class ShortCode {
+        private String generator = "random";
+        private int blockSize = 100;
+        private String permutationKey;
+        private boolean reuseExisting = false;
+        private Pool pool = new Pool();
+    }
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+        private boolean enabled = false;
+        private String path = "data/write-behind";
+        private int batchSize = 1_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int size = 1_000;
+        private int lowWaterMark = 250;
+        private int refillBatchSize = 200;
+        private int fallbackBatchSize = 8;
+    }
+
+    @Getter
+    @Setter
+    public static class Clicks {
+        private boolean enabled = true;
+        private int ringSize = 65_536;
+        private int batchSize = 500;
+        private String ipHashSalt = "";
+        private Rollups rollups = new Rollups();
+
+        /**
+         * Unsalted SHA-256 of an IPv4 address is reversed by hashing the whole address space,
+         * so a blank salt is refused at startup while click tracking is enabled.
+         */
+        public String requireIpHashSalt() {
+            if (enabled && (ipHashSalt == null || ipHashSalt.isBlank())) {
+                throw new IllegalStateException(
+                        "application.clicks.ip-hash-salt (CLICK_IP_HASH_SALT) must be set while click tracking is enabled");
+            }
+            return ipHashSalt;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Rollups {
+        private Duration minuteRetention = Duration.ofHours(2);
+        private Duration hourRetention = Duration.ofDays(2);
+        private int compactionBatchSize = 10_000;
+    }
 }
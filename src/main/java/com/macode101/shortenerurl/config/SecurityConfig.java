@@ -1,5 +1,6 @@
 package com.macode101.shortenerurl.config;
 
+import static com.macode101.shortenerurl.security.AuthorizeConstants.ADMIN;
 import com.macode101.shortenerurl.security.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,7 +37,10 @@ public class SecurityConfig {
                 .requestMatchers("/v3/api-docs", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/api/shorten").authenticated()
                 .requestMatchers("/api/urls/**").authenticated()
+                .requestMatchers("/api/admin/**").hasAuthority(ADMIN)
                 .requestMatchers("/api/hello").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority(ADMIN)
                 .anyRequest().permitAll()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
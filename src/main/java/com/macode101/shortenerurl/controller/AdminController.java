@@ -0,0 +1,34 @@
+package com.macode101.shortenerurl.controller;
+
+import com.macode101.shortenerurl.cache.HotKeyTracker;
+import com.macode101.shortenerurl.dto.HotKeyResponse;
+import static com.macode101.shortenerurl.security.AuthorizeConstants.ADMIN;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Administration")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    public AdminController(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @GetMapping("/hot-keys")
+    @PreAuthorize("hasAuthority('" + ADMIN + "')")
+    @Operation(summary = "List the currently hottest short codes")
+    public ResponseEntity<List<HotKeyResponse>> getHotKeys() {
+        return ResponseEntity.ok(hotKeyTracker.topKeys());
+    }
+}
@@ -1,8 +1,13 @@
 package com.macode101.shortenerurl.controller;
 
+import com.macode101.shortenerurl.analytics.ClickCounter;
+import com.macode101.shortenerurl.analytics.ClickEventPublisher;
+import com.macode101.shortenerurl.analytics.UniqueVisitorTracker;
+import com.macode101.shortenerurl.cache.HotKeyTracker;
 import com.macode101.shortenerurl.service.UrlService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,15 +22,33 @@ import java.net.URI;
 public class RedirectController {
     
     private final UrlService urlService;
+    private final HotKeyTracker hotKeyTracker;
+    private final ClickEventPublisher clickEventPublisher;
+    private final ClickCounter clickCounter;
+    private final UniqueVisitorTracker uniqueVisitorTracker;
     
-    public RedirectController(UrlService urlService) {
+    public RedirectController(
+            UrlService urlService,
+            HotKeyTracker hotKeyTracker,
+            ClickEventPublisher clickEventPublisher,
+            ClickCounter clickCounter,
+            UniqueVisitorTracker uniqueVisitorTracker
+    ) {
         this.urlService = urlService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.clickEventPublisher = clickEventPublisher;
+        this.clickCounter = clickCounter;
+        this.uniqueVisitorTracker = uniqueVisitorTracker;
     }
 
     @GetMapping("/r/{shortCode}")
     @Operation(summary = "Redirect to original URL")
-    public ResponseEntity<Void> redirect(@Valid @PathVariable String shortCode) {
+    public ResponseEntity<Void> redirect(@Valid @PathVariable String shortCode, HttpServletRequest request) {
         String originalUrl = urlService.getOriginalUrl(shortCode);
+        hotKeyTracker.record(shortCode);
+        clickEventPublisher.publish(shortCode, request);
+        clickCounter.increment(shortCode);
+        uniqueVisitorTracker.record(shortCode, request);
         
         return ResponseEntity.status(HttpStatus.FOUND)
                 .location(URI.create(originalUrl))
@@ -1,59 +1,177 @@
 package com.macode101.shortenerurl.controller;
 
+import com.macode101.shortenerurl.cache.IdempotencyStore;
+import com.macode101.shortenerurl.dto.BulkShortenItemResponse;
+import com.macode101.shortenerurl.dto.BulkShortenRequest;
+import com.macode101.shortenerurl.dto.DeactivateUrlsRequest;
+import com.macode101.shortenerurl.dto.DeactivateUrlsResponse;
 import com.macode101.shortenerurl.dto.ShortenUrlRequest;
 import com.macode101.shortenerurl.dto.ShortenUrlResponse;
 import com.macode101.shortenerurl.dto.UrlListResponse;
+import com.macode101.shortenerurl.dto.UrlPage;
+import com.macode101.shortenerurl.dto.UrlStatsResponse;
 import static com.macode101.shortenerurl.security.AuthorizeConstants.ADMIN;
 import static com.macode101.shortenerurl.security.AuthorizeConstants.USER;
+import com.macode101.shortenerurl.exception.ValidationException;
+import com.macode101.shortenerurl.service.ExportService;
+import com.macode101.shortenerurl.service.ImportService;
+import com.macode101.shortenerurl.service.LinkStatsService;
 import com.macode101.shortenerurl.service.UrlService;
+import com.macode101.shortenerurl.util.Hashing;
 import com.macode101.shortenerurl.util.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api")
 @Tag(name = "URL Management")
 @SecurityRequirement(name = "bearerAuth")
 public class UrlController {
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+    private static final CacheControl LIST_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
     
     private final UrlService urlService;
+    private final LinkStatsService linkStatsService;
+    private final ImportService importService;
+    private final IdempotencyStore idempotencyStore;
+    private final ExportService exportService;
 
-    public UrlController(UrlService urlService) {
+    public UrlController(
+            UrlService urlService, LinkStatsService linkStatsService,
+            ImportService importService, IdempotencyStore idempotencyStore, ExportService exportService
+    ) {
         this.urlService = urlService;
+        this.linkStatsService = linkStatsService;
+        this.importService = importService;
+        this.idempotencyStore = idempotencyStore;
+        this.exportService = exportService;
     }
 
     @PostMapping("/shorten")
     @PreAuthorize("hasAnyAuthority('" + USER + "', '" + ADMIN + "')")
     @Operation(summary = "Create a shortened URL")
-    public ResponseEntity<ShortenUrlResponse> shortenUrl(@Valid @RequestBody ShortenUrlRequest request) {
+    public ResponseEntity<ShortenUrlResponse> shortenUrl(
+            @Valid @RequestBody ShortenUrlRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
         String userId = SecurityUtils.getCurrentUserLogin();
-        ShortenUrlResponse response = urlService.createShortUrl(request.originalUrl(), userId);
+        ShortenUrlResponse response = idempotencyKey == null
+                ? urlService.createShortUrl(request.originalUrl(), request.expiresAt(), userId)
+                : idempotencyStore.execute(userId, "shorten", idempotencyKey, request,
+                        () -> urlService.createShortUrl(request.originalUrl(), request.expiresAt(), userId));
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/shorten/bulk")
+    @PreAuthorize("hasAnyAuthority('" + USER + "', '" + ADMIN + "')")
+    @Operation(summary = "Create shortened URLs in bulk; invalid URLs are reported per item")
+    public ResponseEntity<List<BulkShortenItemResponse>> shortenUrls(
+            @Valid @RequestBody BulkShortenRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        String userId = SecurityUtils.getCurrentUserLogin();
+        List<BulkShortenItemResponse> response = idempotencyKey == null
+                ? urlService.createShortUrls(request.originalUrls(), userId)
+                : idempotencyStore.execute(userId, "shorten-bulk", idempotencyKey, request,
+                        () -> urlService.createShortUrls(request.originalUrls(), userId));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('" + USER + "', '" + ADMIN + "')")
+    @Operation(summary = "Import URLs from an NDJSON or CSV stream; results are streamed back per line")
+    public void importUrls(
+            @RequestParam(defaultValue = "0") long offset,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        if (offset < 0) {
+            throw new ValidationException("Offset must not be negative");
+        }
+        String userId = SecurityUtils.getCurrentUserLogin();
+        ImportService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? ImportService.Format.CSV : ImportService.Format.NDJSON;
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        importService.importUrls(request.getInputStream(), format, offset, userId, response.getOutputStream());
+    }
+
     @GetMapping("/urls")
     @PreAuthorize("hasAnyAuthority('" + USER + "', '" + ADMIN + "')")
-    @Operation(summary = "List your shortened URLs")
-    public ResponseEntity<List<UrlListResponse>> getUserUrls() {
+    @Operation(summary = "List your shortened URLs, newest first, one page at a time; pass the X-Next-Cursor header back as "
+            + "cursor for the next page, which is absent on the last one. Use /api/urls/export to fetch every URL in one "
+            + "streamed response. Supports If-None-Match. The ETag changes when links are added, changed or removed and "
+            + "when their clickCount is flushed; clickCount lags by up to one flush interval, so use the stats endpoint "
+            + "for current totals")
+    public ResponseEntity<List<UrlListResponse>> getUserUrls(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request
+    ) {
         String userId = SecurityUtils.getCurrentUserLogin();
-        List<UrlListResponse> urls = urlService.getUserUrls(userId);
-        
-        return ResponseEntity.ok(urls);
+        // Read before the page so that a change racing with the query yields an older tag, never a newer one.
+        String etag = linksETag(userId, urlService.getLinksVersion(userId));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(LIST_CACHE_CONTROL).build();
+        }
+        UrlPage page = urlService.getUserUrls(userId, cursor, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE_CONTROL);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR, page.nextCursor());
+        }
+        return response.body(page.urls());
+    }
+
+    @GetMapping("/urls/export")
+    @PreAuthorize("hasAnyAuthority('" + USER + "', '" + ADMIN + "')")
+    @Operation(summary = "Export all your shortened URLs, newest first, as NDJSON or CSV")
+    public void exportUrls(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        String extension = format.toLowerCase(Locale.ROOT);
+        ExportService.Format exportFormat = switch (extension) {
+            case "ndjson" -> ExportService.Format.NDJSON;
+            case "csv" -> ExportService.Format.CSV;
+            default -> throw new ValidationException("Format must be ndjson or csv");
+        };
+        String userId = SecurityUtils.getCurrentUserLogin();
+        response.setContentType(exportFormat == ExportService.Format.CSV ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"urls." + extension + "\"");
+        exportService.exportUrls(userId, exportFormat, response.getOutputStream());
     }
 
     @DeleteMapping("/urls/{id}")
@@ -64,4 +182,47 @@ public class UrlController {
         urlService.deleteUrl(id, userId);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Weak because the same version covers every page and limit. The user id is part of the tag
+     * since versions of different users collide.
+     */
+    private static String linksETag(String userId, long version) {
+        return "W/\"" + Long.toHexString(Hashing.hash64(userId, Hashing.SEED_PRIMARY)) + "-" + version + "\"";
+    }
+
+    @PostMapping("/urls/deactivate")
+    @PreAuthorize("hasAnyAuthority('" + USER + "', '" + ADMIN + "')")
+    @Operation(summary = "Deactivate your shortened URLs by id or by a [createdFrom, createdTo) creation range")
+    public ResponseEntity<DeactivateUrlsResponse> deactivateUrls(@Valid @RequestBody DeactivateUrlsRequest request) {
+        String userId = SecurityUtils.getCurrentUserLogin();
+        boolean byRange = request.createdFrom() != null || request.createdTo() != null;
+        if ((request.ids() != null) == byRange) {
+            throw new ValidationException("Either ids or createdFrom and createdTo are required, but not both");
+        }
+        long deactivated;
+        if (byRange) {
+            if (request.createdFrom() == null || request.createdTo() == null
+                    || !request.createdFrom().isBefore(request.createdTo())) {
+                throw new ValidationException("createdFrom must be before createdTo");
+            }
+            deactivated = urlService.deactivateUrlsCreatedBetween(request.createdFrom(), request.createdTo(), userId);
+        } else {
+            deactivated = urlService.deactivateUrls(request.ids(), userId);
+        }
+        return ResponseEntity.ok(new DeactivateUrlsResponse(deactivated));
+    }
+
+    @GetMapping("/urls/{id}/stats")
+    @PreAuthorize("hasAnyAuthority('" + USER + "', '" + ADMIN + "')")
+    @Operation(summary = "Get click statistics for a shortened URL")
+    public ResponseEntity<UrlStatsResponse> getUrlStats(
+            @Valid @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String granularity
+    ) {
+        String userId = SecurityUtils.getCurrentUserLogin();
+        return ResponseEntity.ok(linkStatsService.getStats(id, userId, from, to, granularity));
+    }
 }
@@ -0,0 +1,7 @@
+package com.macode101.shortenerurl.dto;
+
+public record BulkShortenItemResponse(
+    int index,
+    ShortenUrlResponse url,
+    String error
+) {}
@@ -0,0 +1,11 @@
+package com.macode101.shortenerurl.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BulkShortenRequest(
+    @NotEmpty(message = "At least one URL is required")
+    @Size(max = 10_000, message = "A bulk request may contain at most 10000 URLs")
+    List<String> originalUrls
+) {}
@@ -0,0 +1,8 @@
+package com.macode101.shortenerurl.dto;
+
+import java.time.LocalDateTime;
+
+public record ClickBucket(
+    LocalDateTime bucketStart,
+    Long clicks
+) {}
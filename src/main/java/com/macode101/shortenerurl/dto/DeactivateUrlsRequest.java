@@ -0,0 +1,15 @@
+package com.macode101.shortenerurl.dto;
+
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selects links either by id or by a {@code [createdFrom, createdTo)} creation range.
+ */
+public record DeactivateUrlsRequest(
+    @Size(max = 10_000, message = "A deactivate request may contain at most 10000 ids")
+    List<Long> ids,
+    LocalDateTime createdFrom,
+    LocalDateTime createdTo
+) {}
@@ -0,0 +1,5 @@
+package com.macode101.shortenerurl.dto;
+
+public record DeactivateUrlsResponse(
+    long deactivated
+) {}
@@ -0,0 +1,8 @@
+package com.macode101.shortenerurl.dto;
+
+public record ExpiredLink(
+    Long id,
+    String uid,
+    String shortCode,
+    String originalUrl
+) {}
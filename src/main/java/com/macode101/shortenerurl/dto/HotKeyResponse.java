@@ -0,0 +1,7 @@
+package com.macode101.shortenerurl.dto;
+
+public record HotKeyResponse(
+    String shortCode,
+    long estimatedHits,
+    boolean pinned
+) {}
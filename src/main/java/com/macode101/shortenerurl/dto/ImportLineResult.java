@@ -0,0 +1,8 @@
+package com.macode101.shortenerurl.dto;
+
+public record ImportLineResult(
+    long line,
+    String shortCode,
+    String shortUrl,
+    String error
+) {}
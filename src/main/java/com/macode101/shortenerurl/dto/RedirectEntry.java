@@ -0,0 +1,15 @@
+package com.macode101.shortenerurl.dto;
+
+import java.time.LocalDateTime;
+
+public record RedirectEntry(
+    String shortCode,
+    String originalUrl,
+    Boolean active,
+    LocalDateTime expiresAt
+) {
+
+    public RedirectEntry(String shortCode, String originalUrl, Boolean active) {
+        this(shortCode, originalUrl, active, null);
+    }
+}
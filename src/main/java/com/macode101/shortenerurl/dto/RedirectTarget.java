@@ -0,0 +1,18 @@
+package com.macode101.shortenerurl.dto;
+
+import java.time.LocalDateTime;
+
+public record RedirectTarget(
+    String originalUrl,
+    Boolean active,
+    LocalDateTime expiresAt
+) {
+
+    public RedirectTarget(String originalUrl, Boolean active) {
+        this(originalUrl, active, null);
+    }
+
+    public boolean isExpiredAt(LocalDateTime now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
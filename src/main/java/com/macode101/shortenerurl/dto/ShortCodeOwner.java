@@ -0,0 +1,7 @@
+package com.macode101.shortenerurl.dto;
+
+public record ShortCodeOwner(
+    String shortCode,
+    String uid,
+    String originalUrl
+) {}
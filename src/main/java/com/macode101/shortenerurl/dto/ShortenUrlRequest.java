@@ -1,12 +1,36 @@
 package com.macode101.shortenerurl.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 public record ShortenUrlRequest(
     @NotBlank(message = "URL is required")
     @Pattern(regexp = "^https?://.*", message = "URL must start with http:// or https://")
     @Size(max = 2048, message = "URL exceeds maximum length of 2048 characters")
-    String originalUrl
-) {}
+    String originalUrl,
+    @Future(message = "Expiry must be in the future")
+    LocalDateTime expiresAt
+) {
+
+    private static final int MAX_URL_BYTES = 2048;
+
+    public ShortenUrlRequest(String originalUrl) {
+        this(originalUrl, null);
+    }
+
+    /**
+     * The redirect covering index stores the URL, and a b-tree entry must fit in about 2.7 KB,
+     * so multibyte URLs are limited in UTF-8 bytes as well as characters.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "URL exceeds maximum length of 2048 bytes")
+    public boolean isOriginalUrlWithinByteLimit() {
+        return originalUrl == null || originalUrl.getBytes(StandardCharsets.UTF_8).length <= MAX_URL_BYTES;
+    }
+}
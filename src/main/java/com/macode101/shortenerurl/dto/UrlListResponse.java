@@ -8,5 +8,6 @@ public record UrlListResponse(
     String shortUrl,
     String originalUrl,
     Boolean active,
-    LocalDateTime createdAt
+    LocalDateTime createdAt,
+    Long clickCount
 ) {}
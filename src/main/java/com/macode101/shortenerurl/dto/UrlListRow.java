@@ -0,0 +1,12 @@
+package com.macode101.shortenerurl.dto;
+
+import java.time.LocalDateTime;
+
+public record UrlListRow(
+    Long id,
+    String shortCode,
+    String originalUrl,
+    Boolean active,
+    LocalDateTime createdAt,
+    Long clickCount
+) {}
@@ -0,0 +1,8 @@
+package com.macode101.shortenerurl.dto;
+
+import java.util.List;
+
+public record UrlPage(
+    List<UrlListResponse> urls,
+    String nextCursor
+) {}
@@ -0,0 +1,17 @@
+package com.macode101.shortenerurl.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record UrlStatsResponse(
+    Long id,
+    String shortCode,
+    Long totalClicks,
+    LocalDate from,
+    LocalDate to,
+    String granularity,
+    Long clicksInRange,
+    List<ClickBucket> clicks,
+    Long uniqueVisitors,
+    Double uniqueVisitorsRelativeError
+) {}
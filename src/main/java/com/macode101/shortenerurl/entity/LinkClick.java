@@ -0,0 +1,43 @@
+package com.macode101.shortenerurl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "link_clicks", indexes = @Index(name = "idx_link_clicks_code_time", columnList = "short_code, clicked_at"))
+public class LinkClick {
+
+    public static final int REFERRER_LENGTH = 1024;
+    public static final int USER_AGENT_LENGTH = 512;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 8)
+    private String shortCode;
+
+    @Column(nullable = false)
+    private LocalDateTime clickedAt;
+
+    @Column(length = REFERRER_LENGTH)
+    private String referrer;
+
+    @Column(length = USER_AGENT_LENGTH)
+    private String userAgent;
+
+    @Column(length = 64)
+    private String ipHash;
+
+    public LinkClick() {}
+}
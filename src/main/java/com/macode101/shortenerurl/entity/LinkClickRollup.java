@@ -0,0 +1,47 @@
+package com.macode101.shortenerurl.entity;
+
+import com.macode101.shortenerurl.analytics.RollupGranularity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(
+        name = "link_click_rollups",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_link_click_rollups_bucket",
+                columnNames = {"short_code", "granularity", "bucket_start"}
+        )
+)
+public class LinkClickRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 8)
+    private String shortCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 6)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private Long clicks;
+
+    public LinkClickRollup() {}
+}
@@ -0,0 +1,43 @@
+package com.macode101.shortenerurl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(
+        name = "link_visitor_sketches",
+        uniqueConstraints = @UniqueConstraint(name = "uk_link_visitor_sketches_code_day", columnNames = {"short_code", "bucket_date"})
+)
+public class LinkVisitorSketch {
+
+    public static final int PRECISION = 12;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 8)
+    private String shortCode;
+
+    @Column(nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(nullable = false, length = (1 << PRECISION) + 1)
+    private byte[] registers;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public LinkVisitorSketch() {}
+}
@@ -6,6 +6,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 import lombok.Getter;
@@ -17,8 +19,10 @@ import lombok.Setter;
 @Table(name = "shortened_urls")
 public class ShortenedUrl {
     
+    // Pooled sequence instead of IDENTITY so that Hibernate can batch inserts.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shortened_urls_id_seq")
+    @SequenceGenerator(name = "shortened_urls_id_seq", sequenceName = "shortened_urls_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 46)
@@ -29,16 +33,39 @@ public class ShortenedUrl {
     
     @Column(nullable = false, length = 2048)
     private String originalUrl;
+
+    // Hashing.sha256Prefix64(originalUrl); indexed with uid to find a user's existing link to a destination.
+    @Column
+    private Long urlHash;
     
     @Column(nullable = false)
     private Boolean active = true;
     
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Enforced on redirect; ExpiredLinkReaper deactivates the row some time after it passes.
+    @Column
+    private LocalDateTime expiresAt;
+
+    // Maintained by ClickCounter with relative updates; never written back from the entity.
+    @Column(nullable = false, updatable = false)
+    private Long clickCount = 0L;
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
     
     public ShortenedUrl() {}
@@ -27,6 +27,10 @@ public class User {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Maintained with relative updates through UserRepository; never written back from the entity.
+    @Column(nullable = false, updatable = false)
+    private Long linksVersion = 0L;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,19 @@
+package com.macode101.shortenerurl.repository;
+
+import com.macode101.shortenerurl.entity.LinkVisitorSketch;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LinkVisitorSketchRepository extends JpaRepository<LinkVisitorSketch, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<LinkVisitorSketch> findByShortCodeAndBucketDate(String shortCode, LocalDate bucketDate);
+
+    List<LinkVisitorSketch> findByShortCodeAndBucketDateBetween(String shortCode, LocalDate from, LocalDate to);
+}
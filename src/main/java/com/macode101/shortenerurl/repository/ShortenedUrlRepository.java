@@ -1,18 +1,109 @@
 package com.macode101.shortenerurl.repository;
 
+import com.macode101.shortenerurl.dto.ExpiredLink;
+import com.macode101.shortenerurl.dto.RedirectEntry;
+import com.macode101.shortenerurl.dto.RedirectTarget;
+import com.macode101.shortenerurl.dto.ShortCodeOwner;
+import com.macode101.shortenerurl.dto.UrlListRow;
 import com.macode101.shortenerurl.entity.ShortenedUrl;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface ShortenedUrlRepository extends JpaRepository<ShortenedUrl, Long> {
     
-    Optional<ShortenedUrl> findByShortCode(String shortCode);
+    @Query("select new com.macode101.shortenerurl.dto.RedirectTarget(s.originalUrl, s.active, s.expiresAt) "
+            + "from ShortenedUrl s where s.shortCode = :shortCode")
+    Optional<RedirectTarget> findRedirectTargetByShortCode(@Param("shortCode") String shortCode);
 
     boolean existsByShortCode(String shortCode);
 
-    List<ShortenedUrl> findByUidOrderByCreatedAtDesc(String user);
+    @Query("select new com.macode101.shortenerurl.dto.UrlListRow(s.id, s.shortCode, s.originalUrl, s.active, s.createdAt, s.clickCount) "
+            + "from ShortenedUrl s where s.uid = :uid order by s.createdAt desc, s.id desc")
+    List<UrlListRow> findFirstPageByUid(@Param("uid") String uid, Limit limit);
+
+    @Query("select new com.macode101.shortenerurl.dto.UrlListRow(s.id, s.shortCode, s.originalUrl, s.active, s.createdAt, s.clickCount) "
+            + "from ShortenedUrl s where s.uid = :uid "
+            + "and (s.createdAt < :createdAt or (s.createdAt = :createdAt and s.id < :id)) "
+            + "order by s.createdAt desc, s.id desc")
+    List<UrlListRow> findPageByUidAfter(
+            @Param("uid") String uid, @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Limit limit);
+
+    @Query("select new com.macode101.shortenerurl.dto.UrlListRow(s.id, s.shortCode, s.originalUrl, s.active, s.createdAt, s.clickCount) "
+            + "from ShortenedUrl s where s.uid = :uid and s.id in :ids and s.active = true")
+    List<UrlListRow> findActiveListRowsByUidAndIdIn(@Param("uid") String uid, @Param("ids") Collection<Long> ids);
+
+    @Query("select new com.macode101.shortenerurl.dto.UrlListRow(s.id, s.shortCode, s.originalUrl, s.active, s.createdAt, s.clickCount) "
+            + "from ShortenedUrl s where s.uid = :uid and s.active = true "
+            + "and s.createdAt >= :from and s.createdAt < :to "
+            + "and (s.createdAt > :createdAt or (s.createdAt = :createdAt and s.id > :id)) "
+            + "order by s.createdAt, s.id")
+    List<UrlListRow> findActiveListRowsCreatedBetweenAfter(
+            @Param("uid") String uid, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update ShortenedUrl s set s.active = false, s.updatedAt = :updatedAt "
+            + "where s.uid = :uid and s.id in :ids and s.active = true")
+    int deactivateByUidAndIdIn(
+            @Param("uid") String uid, @Param("ids") Collection<Long> ids, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("select s.shortCode from ShortenedUrl s where s.shortCode in :shortCodes")
+    List<String> findExistingShortCodes(@Param("shortCodes") Collection<String> shortCodes);
+
+    @Query("select new com.macode101.shortenerurl.dto.ShortCodeOwner(s.shortCode, s.uid, s.originalUrl) "
+            + "from ShortenedUrl s where s.shortCode in :shortCodes")
+    List<ShortCodeOwner> findShortCodeOwners(@Param("shortCodes") Collection<String> shortCodes);
+
+    @Query("select new com.macode101.shortenerurl.dto.UrlListRow(s.id, s.shortCode, s.originalUrl, s.active, s.createdAt, s.clickCount) "
+            + "from ShortenedUrl s where s.uid = :uid order by s.createdAt desc, s.id desc")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UrlListRow> streamListRowsByUid(@Param("uid") String uid);
+
+    @Query("select s.shortCode from ShortenedUrl s where s.uid = :uid and s.urlHash = :urlHash "
+            + "and s.originalUrl = :originalUrl and s.active = true and s.expiresAt is null order by s.id")
+    List<String> findActiveShortCodesByDestination(
+            @Param("uid") String uid, @Param("urlHash") long urlHash, @Param("originalUrl") String originalUrl, Limit limit);
+
+    @Query("select s.shortCode from ShortenedUrl s")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllShortCodes();
+
+    @Query("select s.shortCode from ShortenedUrl s where s.createdAt > :since")
+    List<String> findShortCodesCreatedAfter(@Param("since") LocalDateTime since);
+
+    // Expiring links are left to the overlay and the database, which carry their expiry.
+    @Query("select new com.macode101.shortenerurl.dto.RedirectEntry(s.shortCode, s.originalUrl, s.active) "
+            + "from ShortenedUrl s where s.active = true and s.expiresAt is null")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<RedirectEntry> streamActiveRedirectEntries();
+
+    @Query("select new com.macode101.shortenerurl.dto.RedirectEntry(s.shortCode, s.originalUrl, s.active, s.expiresAt) "
+            + "from ShortenedUrl s where s.updatedAt > :since")
+    List<RedirectEntry> findRedirectEntriesUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("select new com.macode101.shortenerurl.dto.ExpiredLink(s.id, s.uid, s.shortCode, s.originalUrl) "
+            + "from ShortenedUrl s where s.active = true and s.expiresAt <= :now order by s.expiresAt")
+    List<ExpiredLink> findExpiredLinks(@Param("now") LocalDateTime now, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update ShortenedUrl s set s.active = false, s.updatedAt = :now "
+            + "where s.id in :ids and s.active = true and s.expiresAt <= :now")
+    int deactivateExpired(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
@@ -2,7 +2,11 @@ package com.macode101.shortenerurl.repository;
 
 import com.macode101.shortenerurl.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -14,4 +18,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     boolean existsByUid(String userId);
+
+    @Query("select u.linksVersion from User u where u.uid = :uid")
+    Optional<Long> findLinksVersionByUid(@Param("uid") String uid);
+
+    /**
+     * Must run after the change to the user's links is written, so that a listing that read
+     * the new version also sees the change.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.linksVersion = u.linksVersion + 1 where u.uid = :uid")
+    int incrementLinksVersion(@Param("uid") String uid);
 }
@@ -14,7 +14,8 @@ public class SecurityUrlPermit {
                 "/v3/api-docs",
                 "/v3/api-docs/**",
                 "/swagger-ui.html",
-                "/swagger-ui/**"
+                "/swagger-ui/**",
+                "/actuator/health"
         );
     }
 }
@@ -1,5 +1,6 @@
 package com.macode101.shortenerurl.service;
 
+import com.macode101.shortenerurl.cache.UserExistenceCache;
 import com.macode101.shortenerurl.dto.AuthResponse;
 import com.macode101.shortenerurl.dto.LoginRequest;
 import com.macode101.shortenerurl.dto.RegisterRequest;
@@ -20,10 +21,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final UserExistenceCache userExistenceCache;
     
-    public AuthenticationServiceImpl(UserRepository userRepository, JwtUtil jwtUtil) {
+    public AuthenticationServiceImpl(UserRepository userRepository, JwtUtil jwtUtil, UserExistenceCache userExistenceCache) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
+        this.userExistenceCache = userExistenceCache;
         this.passwordEncoder = new BCryptPasswordEncoder(10);
     }
     
@@ -39,6 +42,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
         User user = new User(request.email(), passwordHash, uid);
         user = userRepository.save(user);
+        userExistenceCache.markExisting(user.getUid());
         
         String accessToken = jwtUtil.generateToken(user.getUid(),  user.getEmail(), List.of(USER));
         
@@ -54,6 +58,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             throw new UnauthorizedException("Invalid credentials");
         }
         
+        userExistenceCache.markExisting(user.getUid());
         String accessToken = jwtUtil.generateToken(user.getUid(), user.getEmail(), List.of(USER));
         
         return new AuthResponse(accessToken);
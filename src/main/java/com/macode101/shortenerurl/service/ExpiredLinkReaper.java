@@ -0,0 +1,93 @@
+package com.macode101.shortenerurl.service;
+
+import com.macode101.shortenerurl.cache.RedirectCache;
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.ExpiredLink;
+import com.macode101.shortenerurl.dto.RedirectTarget;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import com.macode101.shortenerurl.repository.UserRepository;
+import com.macode101.shortenerurl.snapshot.RedirectSnapshotService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * Deactivates links whose {@code expires_at} has passed, in batches read through the partial
+ * index on pending expirations. Redirects already refuse expired links on their own; reaping
+ * makes the expiry visible in listings, exports and the redirect snapshot, and lets the row
+ * leave the index. Each run is bounded, leaving any remainder to the next one.
+ */
+@Component
+public class ExpiredLinkReaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredLinkReaper.class);
+
+    private final ShortenedUrlRepository shortenedUrlRepository;
+    private final UserRepository userRepository;
+    private final RedirectCache redirectCache;
+    private final RedirectSnapshotService redirectSnapshotService;
+    private final ApplicationConfiguration.Expiration config;
+    private final Counter reaped;
+
+    public ExpiredLinkReaper(
+            ShortenedUrlRepository shortenedUrlRepository,
+            UserRepository userRepository,
+            RedirectCache redirectCache,
+            RedirectSnapshotService redirectSnapshotService,
+            ApplicationConfiguration applicationConfiguration,
+            MeterRegistry meterRegistry
+    ) {
+        this.shortenedUrlRepository = shortenedUrlRepository;
+        this.userRepository = userRepository;
+        this.redirectCache = redirectCache;
+        this.redirectSnapshotService = redirectSnapshotService;
+        this.config = applicationConfiguration.getExpiration();
+        this.reaped = Counter.builder("links.expired.reaped")
+                .description("Expired links deactivated by the reaper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.expiration.reap-interval:PT1M}")
+    public void reap() {
+        try {
+            for (int batch = 0; batch < config.getMaxBatchesPerRun(); batch++) {
+                if (reapBatch() < config.getBatchSize()) {
+                    return;
+                }
+            }
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Failed to reap expired links, retrying next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of expired links found, which is less than the batch size once all are reaped
+     */
+    private int reapBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ExpiredLink> expired = shortenedUrlRepository.findExpiredLinks(now, Limit.of(config.getBatchSize()));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        reaped.increment(shortenedUrlRepository.deactivateExpired(expired.stream().map(ExpiredLink::id).toList(), now));
+
+        Set<String> uids = new TreeSet<>();
+        for (ExpiredLink link : expired) {
+            redirectSnapshotService.update(link.shortCode(), new RedirectTarget(link.originalUrl(), false));
+            uids.add(link.uid());
+        }
+        redirectCache.invalidateAll(expired.stream().map(ExpiredLink::shortCode).toList());
+        uids.forEach(userRepository::incrementLinksVersion);
+        return expired.size();
+    }
+}
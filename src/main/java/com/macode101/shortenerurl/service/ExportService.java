@@ -0,0 +1,15 @@
+package com.macode101.shortenerurl.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    enum Format { NDJSON, CSV }
+
+    /**
+     * Writes every link owned by {@code userId}, newest first, to {@code output} while reading
+     * them from a database cursor.
+     */
+    void exportUrls(String userId, Format format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,136 @@
+package com.macode101.shortenerurl.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.macode101.shortenerurl.analytics.ClickCounter;
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.UrlListResponse;
+import com.macode101.shortenerurl.dto.UrlListRow;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams a user's links from a database cursor straight to the response. Rows are read as
+ * DTO projections so the persistence context stays empty, and nothing is collected, so
+ * memory use does not grow with the account. The read-only transaction, and with it the
+ * connection, is held only while the rows are being written.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String CSV_HEADER = "id,shortCode,shortUrl,originalUrl,active,createdAt,clickCount\n";
+
+    private final ShortenedUrlRepository shortenedUrlRepository;
+    private final ClickCounter clickCounter;
+    private final String shortUrlPrefix;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportServiceImpl(
+            ShortenedUrlRepository shortenedUrlRepository, ClickCounter clickCounter,
+            ApplicationConfiguration applicationConfiguration, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.shortenedUrlRepository = shortenedUrlRepository;
+        this.clickCounter = clickCounter;
+        this.shortUrlPrefix = applicationConfiguration.getBaseUrl() + "/r/";
+        this.objectMapper = objectMapper;
+        // Flushing is left to the buffer; a flush per row would send one chunk per row.
+        this.rowWriter = objectMapper.writerFor(UrlListResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void exportUrls(String userId, Format format, OutputStream output) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(output, BUFFER_SIZE);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<UrlListRow> rows = shortenedUrlRepository.streamListRowsByUid(userId)) {
+                    if (format == Format.CSV) {
+                        writeCsv(rows.iterator(), buffered);
+                    } else {
+                        writeNdjson(rows.iterator(), buffered);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+    }
+
+    private void writeNdjson(Iterator<UrlListRow> rows, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        while (rows.hasNext()) {
+            rowWriter.writeValue(generator, toResponse(rows.next()));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private void writeCsv(Iterator<UrlListRow> rows, OutputStream output) throws IOException {
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        writer.write(CSV_HEADER);
+        while (rows.hasNext()) {
+            UrlListResponse url = toResponse(rows.next());
+            writer.write(String.valueOf(url.id()));
+            writer.write(',');
+            writer.write(url.shortCode());
+            writer.write(',');
+            writeCsvField(writer, url.shortUrl());
+            writer.write(',');
+            writeCsvField(writer, url.originalUrl());
+            writer.write(',');
+            writer.write(String.valueOf(url.active()));
+            writer.write(',');
+            writer.write(String.valueOf(url.createdAt()));
+            writer.write(',');
+            writer.write(String.valueOf(url.clickCount()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private UrlListResponse toResponse(UrlListRow row) {
+        return new UrlListResponse(
+                row.id(),
+                row.shortCode(),
+                shortUrlPrefix + row.shortCode(),
+                row.originalUrl(),
+                row.active(),
+                row.createdAt(),
+                row.clickCount() + clickCounter.unflushed(row.shortCode())
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.macode101.shortenerurl.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ImportService {
+
+    enum Format { NDJSON, CSV }
+
+    /**
+     * Reads one URL per line from {@code input}, skipping the first {@code offset} lines, and
+     * writes one {@link com.macode101.shortenerurl.dto.ImportLineResult} per non-empty line to
+     * {@code output} as NDJSON.
+     */
+    void importUrls(InputStream input, Format format, long offset, String userId, OutputStream output) throws IOException;
+}
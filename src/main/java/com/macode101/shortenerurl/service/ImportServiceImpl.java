@@ -0,0 +1,234 @@
+package com.macode101.shortenerurl.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.macode101.shortenerurl.cache.UserExistenceCache;
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.ImportLineResult;
+import com.macode101.shortenerurl.dto.ShortenUrlRequest;
+import com.macode101.shortenerurl.entity.ShortenedUrl;
+import com.macode101.shortenerurl.exception.ResourceNotFoundException;
+import com.macode101.shortenerurl.exception.UrlShortenerException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Streams an import through fixed-size batches so memory stays bounded whatever the input
+ * size: each batch is parsed and validated in parallel, inserted with one JDBC batch, and its
+ * results are flushed to the client before the next batch is read. Results carry their line
+ * number, so an interrupted import can be resumed with the last reported line as offset.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportServiceImpl.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final Pattern SHORT_CODE = Pattern.compile("[A-Za-z0-9]{4,8}");
+
+    private final ShortUrlBatchWriter shortUrlBatchWriter;
+    private final UserExistenceCache userExistenceCache;
+    private final String shortUrlPrefix;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    public ImportServiceImpl(
+            ShortUrlBatchWriter shortUrlBatchWriter, UserExistenceCache userExistenceCache,
+            ApplicationConfiguration applicationConfiguration, Validator validator, ObjectMapper objectMapper
+    ) {
+        this.shortUrlBatchWriter = shortUrlBatchWriter;
+        this.userExistenceCache = userExistenceCache;
+        this.shortUrlPrefix = applicationConfiguration.getBaseUrl() + "/r/";
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void importUrls(InputStream input, Format format, long offset, String userId, OutputStream output) throws IOException {
+        if (!userExistenceCache.exists(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        while (lineNumber < offset && reader.readLine() != null) {
+            lineNumber++;
+        }
+
+        List<RawLine> batch = new ArrayList<>(BATCH_SIZE);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isCsvHeader(line))) {
+                continue;
+            }
+            batch.add(new RawLine(lineNumber, line));
+            if (batch.size() == BATCH_SIZE) {
+                if (!importBatch(batch, format, userId, output)) {
+                    return;
+                }
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, format, userId, output);
+        }
+    }
+
+    /**
+     * @return {@code false} if the batch could not be written and the import was aborted
+     */
+    private boolean importBatch(List<RawLine> batch, Format format, String userId, OutputStream output) throws IOException {
+        List<ParsedLine> parsed = batch.parallelStream()
+                .map(raw -> format == Format.CSV ? parseCsv(raw) : parseNdjson(raw))
+                .toList();
+        List<ShortUrlBatchWriter.Item> items = parsed.stream()
+                .filter(line -> line.error() == null)
+                .map(ParsedLine::item)
+                .toList();
+
+        List<ShortUrlBatchWriter.Outcome> outcomes;
+        try {
+            outcomes = items.isEmpty() ? List.of() : shortUrlBatchWriter.insert(items, userId);
+        } catch (DataAccessException | UrlShortenerException e) {
+            long resumeOffset = batch.get(0).number() - 1;
+            logger.warn("Import for user {} aborted at line {}", userId, resumeOffset + 1, e);
+            for (RawLine raw : batch) {
+                write(output, new ImportLineResult(raw.number(), null, null,
+                        "Import aborted; resume with offset=" + resumeOffset));
+            }
+            output.flush();
+            return false;
+        }
+
+        int next = 0;
+        for (ParsedLine line : parsed) {
+            if (line.error() != null) {
+                write(output, new ImportLineResult(line.number(), null, null, line.error()));
+                continue;
+            }
+            ShortUrlBatchWriter.Outcome outcome = outcomes.get(next++);
+            ShortenedUrl saved = outcome.saved();
+            write(output, saved == null
+                    ? new ImportLineResult(line.number(), null, null, outcome.error())
+                    : new ImportLineResult(line.number(), saved.getShortCode(),
+                            shortUrlPrefix + saved.getShortCode(), null));
+        }
+        output.flush();
+        return true;
+    }
+
+    private ParsedLine parseNdjson(RawLine raw) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(raw.text());
+        } catch (JsonProcessingException e) {
+            return ParsedLine.rejected(raw.number(), "Malformed JSON");
+        }
+        if (!node.isObject()) {
+            return ParsedLine.rejected(raw.number(), "Expected a JSON object");
+        }
+        JsonNode shortCode = node.path("shortCode");
+        return validate(raw.number(), node.path("originalUrl").asText(null),
+                shortCode.isNull() ? null : shortCode.asText(null));
+    }
+
+    private ParsedLine parseCsv(RawLine raw) {
+        List<String> fields = splitCsv(raw.text());
+        if (fields == null) {
+            return ParsedLine.rejected(raw.number(), "Malformed CSV: unterminated quote");
+        }
+        if (fields.size() > 2) {
+            return ParsedLine.rejected(raw.number(), "Expected originalUrl and an optional shortCode");
+        }
+        String shortCode = fields.size() == 2 && !fields.get(1).isBlank() ? fields.get(1).trim() : null;
+        return validate(raw.number(), fields.get(0).trim(), shortCode);
+    }
+
+    private ParsedLine validate(long number, String originalUrl, String shortCode) {
+        Set<ConstraintViolation<ShortenUrlRequest>> violations = validator.validate(new ShortenUrlRequest(originalUrl));
+        if (!violations.isEmpty()) {
+            return ParsedLine.rejected(number, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        if (shortCode != null && !SHORT_CODE.matcher(shortCode).matches()) {
+            return ParsedLine.rejected(number, "Short code must be 4 to 8 letters or digits");
+        }
+        return new ParsedLine(number, new ShortUrlBatchWriter.Item(originalUrl, shortCode), null);
+    }
+
+    private static boolean isCsvHeader(String line) {
+        List<String> fields = splitCsv(line);
+        return fields != null && "originalUrl".equalsIgnoreCase(fields.get(0).trim());
+    }
+
+    /**
+     * Splits one RFC 4180 record. Quoted fields may contain commas and doubled quotes but,
+     * since every record is a single line, not line breaks.
+     *
+     * @return the fields, or {@code null} if a quote is left open
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void write(OutputStream output, ImportLineResult result) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(result));
+        output.write('\n');
+    }
+
+    private record RawLine(long number, String text) {}
+
+    private record ParsedLine(long number, ShortUrlBatchWriter.Item item, String error) {
+
+        static ParsedLine rejected(long number, String error) {
+            return new ParsedLine(number, null, error);
+        }
+    }
+}
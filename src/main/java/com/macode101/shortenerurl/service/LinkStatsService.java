@@ -0,0 +1,10 @@
+package com.macode101.shortenerurl.service;
+
+import com.macode101.shortenerurl.dto.UrlStatsResponse;
+
+import java.time.LocalDate;
+
+public interface LinkStatsService {
+
+    UrlStatsResponse getStats(Long id, String userId, LocalDate from, LocalDate to, String granularity);
+}
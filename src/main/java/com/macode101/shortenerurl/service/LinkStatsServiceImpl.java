@@ -0,0 +1,85 @@
+package com.macode101.shortenerurl.service;
+
+import com.macode101.shortenerurl.analytics.ClickCounter;
+import com.macode101.shortenerurl.analytics.ClickRollups;
+import com.macode101.shortenerurl.analytics.RollupGranularity;
+import com.macode101.shortenerurl.analytics.UniqueVisitorTracker;
+import com.macode101.shortenerurl.dto.ClickBucket;
+import com.macode101.shortenerurl.dto.UrlStatsResponse;
+import com.macode101.shortenerurl.entity.ShortenedUrl;
+import com.macode101.shortenerurl.exception.ForbiddenException;
+import com.macode101.shortenerurl.exception.ResourceNotFoundException;
+import com.macode101.shortenerurl.exception.ValidationException;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import com.macode101.shortenerurl.util.HyperLogLog;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class LinkStatsServiceImpl implements LinkStatsService {
+
+    static final int DEFAULT_RANGE_DAYS = 30;
+    static final int MAX_RANGE_DAYS = 366;
+
+    private final ShortenedUrlRepository shortenedUrlRepository;
+    private final ClickCounter clickCounter;
+    private final UniqueVisitorTracker uniqueVisitorTracker;
+    private final ClickRollups clickRollups;
+
+    public LinkStatsServiceImpl(
+            ShortenedUrlRepository shortenedUrlRepository,
+            ClickCounter clickCounter,
+            UniqueVisitorTracker uniqueVisitorTracker,
+            ClickRollups clickRollups
+    ) {
+        this.shortenedUrlRepository = shortenedUrlRepository;
+        this.clickCounter = clickCounter;
+        this.uniqueVisitorTracker = uniqueVisitorTracker;
+        this.clickRollups = clickRollups;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UrlStatsResponse getStats(Long id, String userId, LocalDate from, LocalDate to, String granularity) {
+        ShortenedUrl shortenedUrl = shortenedUrlRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("URL not found with id: " + id));
+
+        if (!shortenedUrl.getUid().equals(userId)) {
+            throw new ForbiddenException("You do not have permission to view statistics for this URL");
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new ValidationException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new ValidationException("Statistics range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        RollupGranularity bucketSize = granularity != null ? RollupGranularity.parse(granularity) : RollupGranularity.DAY;
+
+        String shortCode = shortenedUrl.getShortCode();
+        List<ClickBucket> series = clickRollups.query(
+                shortCode, start.atStartOfDay(), end.plusDays(1).atStartOfDay(), bucketSize);
+        HyperLogLog visitors = uniqueVisitorTracker.visitors(shortCode, start, end);
+
+        return new UrlStatsResponse(
+                shortenedUrl.getId(),
+                shortCode,
+                shortenedUrl.getClickCount() + clickCounter.unflushed(shortCode),
+                start,
+                end,
+                bucketSize.name().toLowerCase(Locale.ROOT),
+                series.stream().mapToLong(ClickBucket::clicks).sum(),
+                series,
+                visitors.estimate(),
+                visitors.relativeStandardError()
+        );
+    }
+}
@@ -0,0 +1,167 @@
+package com.macode101.shortenerurl.service;
+
+import com.macode101.shortenerurl.cache.ShortCodeBloomFilter;
+import com.macode101.shortenerurl.entity.ShortenedUrl;
+import com.macode101.shortenerurl.exception.UrlShortenerException;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import com.macode101.shortenerurl.repository.UserRepository;
+import com.macode101.shortenerurl.util.Hashing;
+import com.macode101.shortenerurl.util.ShortCodeGenerator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inserts a batch of short URLs with one {@code saveAllAndFlush}, i.e. one JDBC batch.
+ * Because a unique-code conflict rolls back the whole batch, all codes are checked with a
+ * single {@code IN} query first. Taken generated codes are replaced, while taken or
+ * repeated pre-assigned codes fail only their own item. If an insert still races with
+ * another writer, the batch is checked again and retried.
+ */
+@Component
+public class ShortUrlBatchWriter {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final ShortenedUrlRepository shortenedUrlRepository;
+    private final UserRepository userRepository;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+
+    public ShortUrlBatchWriter(
+            ShortenedUrlRepository shortenedUrlRepository,
+            UserRepository userRepository,
+            ShortCodeGenerator shortCodeGenerator,
+            ShortCodeBloomFilter shortCodeBloomFilter
+    ) {
+        this.shortenedUrlRepository = shortenedUrlRepository;
+        this.userRepository = userRepository;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.shortCodeBloomFilter = shortCodeBloomFilter;
+    }
+
+    /**
+     * @param shortCode pre-assigned code, or {@code null} to generate one
+     */
+    public record Item(String originalUrl, String shortCode) {}
+
+    /**
+     * Either the saved entity or the reason its item was rejected.
+     */
+    public record Outcome(ShortenedUrl saved, String error) {}
+
+    public List<Outcome> insert(List<Item> items, String userId) {
+        Outcome[] outcomes = new Outcome[items.size()];
+        Set<String> requested = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            String shortCode = items.get(i).shortCode();
+            if (shortCode != null && !requested.add(shortCode)) {
+                outcomes[i] = new Outcome(null, "Short code appears more than once in the batch: " + shortCode);
+            }
+        }
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            rejectTakenShortCodes(items, outcomes);
+            List<Integer> pending = new ArrayList<>();
+            Set<String> preassigned = new HashSet<>();
+            for (int i = 0; i < items.size(); i++) {
+                if (outcomes[i] == null) {
+                    pending.add(i);
+                    if (items.get(i).shortCode() != null) {
+                        preassigned.add(items.get(i).shortCode());
+                    }
+                }
+            }
+            if (pending.isEmpty()) {
+                return Arrays.asList(outcomes);
+            }
+
+            List<String> generated = generateUnusedShortCodes(pending.size() - preassigned.size(), preassigned);
+            List<ShortenedUrl> batch = new ArrayList<>(pending.size());
+            int next = 0;
+            for (int index : pending) {
+                Item item = items.get(index);
+                String shortCode = item.shortCode() != null ? item.shortCode() : generated.get(next++);
+                batch.add(newShortenedUrl(item.originalUrl(), userId, shortCode));
+            }
+
+            try {
+                shortenedUrlRepository.saveAllAndFlush(batch);
+            } catch (DataIntegrityViolationException e) {
+                if (shortenedUrlRepository.findExistingShortCodes(codesOf(batch)).isEmpty()) {
+                    throw e;
+                }
+                continue;
+            }
+            userRepository.incrementLinksVersion(userId);
+
+            for (int i = 0; i < pending.size(); i++) {
+                ShortenedUrl saved = batch.get(i);
+                shortCodeBloomFilter.put(saved.getShortCode());
+                outcomes[pending.get(i)] = new Outcome(saved, null);
+            }
+            return Arrays.asList(outcomes);
+        }
+
+        throw new UrlShortenerException("Failed to insert short URL batch after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    private void rejectTakenShortCodes(List<Item> items, Outcome[] outcomes) {
+        Set<String> preassigned = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (outcomes[i] == null && items.get(i).shortCode() != null) {
+                preassigned.add(items.get(i).shortCode());
+            }
+        }
+        if (preassigned.isEmpty()) {
+            return;
+        }
+        Set<String> taken = new HashSet<>(shortenedUrlRepository.findExistingShortCodes(preassigned));
+        for (int i = 0; i < items.size(); i++) {
+            if (outcomes[i] == null && taken.contains(items.get(i).shortCode())) {
+                outcomes[i] = new Outcome(null, "Short code is already in use: " + items.get(i).shortCode());
+            }
+        }
+    }
+
+    private List<String> generateUnusedShortCodes(int count, Set<String> reserved) {
+        Set<String> shortCodes = new HashSet<>();
+        for (int round = 0; round < MAX_ATTEMPTS && shortCodes.size() < count; round++) {
+            Set<String> candidates = new HashSet<>();
+            while (shortCodes.size() + candidates.size() < count) {
+                String shortCode = shortCodeGenerator.generate();
+                if (!shortCodes.contains(shortCode) && !reserved.contains(shortCode)) {
+                    candidates.add(shortCode);
+                }
+            }
+            shortenedUrlRepository.findExistingShortCodes(candidates).forEach(candidates::remove);
+            shortCodes.addAll(candidates);
+        }
+        if (shortCodes.size() < count) {
+            throw new UrlShortenerException("Failed to generate " + count + " unused short codes");
+        }
+        return new ArrayList<>(shortCodes);
+    }
+
+    private static Collection<String> codesOf(List<ShortenedUrl> batch) {
+        return batch.stream().map(ShortenedUrl::getShortCode).toList();
+    }
+
+    public static ShortenedUrl newShortenedUrl(String originalUrl, String userId, String shortCode) {
+        ShortenedUrl shortenedUrl = new ShortenedUrl();
+        shortenedUrl.setShortCode(shortCode);
+        shortenedUrl.setOriginalUrl(originalUrl);
+        shortenedUrl.setUrlHash(Hashing.sha256Prefix64(originalUrl));
+        shortenedUrl.setUid(userId);
+        shortenedUrl.setActive(true);
+        shortenedUrl.setCreatedAt(LocalDateTime.now());
+        return shortenedUrl;
+    }
+}
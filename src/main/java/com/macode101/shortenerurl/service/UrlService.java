@@ -1,17 +1,51 @@
 package com.macode101.shortenerurl.service;
 
+import com.macode101.shortenerurl.dto.BulkShortenItemResponse;
 import com.macode101.shortenerurl.dto.ShortenUrlResponse;
-import com.macode101.shortenerurl.dto.UrlListResponse;
+import com.macode101.shortenerurl.dto.UrlPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UrlService {
 
-    ShortenUrlResponse createShortUrl(String originalUrl, String userId);
+    default ShortenUrlResponse createShortUrl(String originalUrl, String userId) {
+        return createShortUrl(originalUrl, null, userId);
+    }
 
-    List<UrlListResponse> getUserUrls(String userId);
+    /**
+     * @param expiresAt when the link stops redirecting, or {@code null} if it never expires
+     */
+    ShortenUrlResponse createShortUrl(String originalUrl, LocalDateTime expiresAt, String userId);
+
+    List<BulkShortenItemResponse> createShortUrls(List<String> originalUrls, String userId);
+
+    /**
+     * Always paginated; the full list is streamed by {@link ExportService} instead.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param limit page size, or {@code null} for the configured default
+     */
+    UrlPage getUserUrls(String userId, String cursor, Integer limit);
+
+    /**
+     * @return a counter that changes whenever the user's link list changes
+     */
+    long getLinksVersion(String userId);
 
     void deleteUrl(Long id, String userId);
 
+    /**
+     * Ids that do not exist, belong to another user or are already inactive are skipped.
+     *
+     * @return the number of links deactivated
+     */
+    long deactivateUrls(List<Long> ids, String userId);
+
+    /**
+     * @return the number of links created in {@code [from, to)} that were deactivated
+     */
+    long deactivateUrlsCreatedBetween(LocalDateTime from, LocalDateTime to, String userId);
+
     String getOriginalUrl(String shortCode);
 }
@@ -1,84 +1,192 @@
 package com.macode101.shortenerurl.service;
 
+import com.macode101.shortenerurl.cache.RedirectCache;
+import com.macode101.shortenerurl.cache.ShortCodeBloomFilter;
+import com.macode101.shortenerurl.cache.UserExistenceCache;
 import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.BulkShortenItemResponse;
+import com.macode101.shortenerurl.dto.RedirectTarget;
+import com.macode101.shortenerurl.dto.ShortenUrlRequest;
 import com.macode101.shortenerurl.dto.ShortenUrlResponse;
 import com.macode101.shortenerurl.dto.UrlListResponse;
+import com.macode101.shortenerurl.dto.UrlListRow;
+import com.macode101.shortenerurl.dto.UrlPage;
 import com.macode101.shortenerurl.entity.ShortenedUrl;
 import com.macode101.shortenerurl.exception.ForbiddenException;
 import com.macode101.shortenerurl.exception.BadRequestException;
 import com.macode101.shortenerurl.exception.ResourceNotFoundException;
 import com.macode101.shortenerurl.exception.UrlShortenerException;
+import com.macode101.shortenerurl.exception.ValidationException;
 import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
 import com.macode101.shortenerurl.repository.UserRepository;
+import com.macode101.shortenerurl.snapshot.RedirectSnapshotService;
+import com.macode101.shortenerurl.util.Hashing;
+import com.macode101.shortenerurl.util.ListCursor;
 import com.macode101.shortenerurl.util.ShortCodeGenerator;
+import com.macode101.shortenerurl.writebehind.LinkWriteBehind;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class UrlServiceImpl implements UrlService {
     
     private static final int MAX_COLLISION_RETRIES = 5;
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int DEACTIVATE_CHUNK_SIZE = 1000;
     
     private final ShortenedUrlRepository shortenedUrlRepository;
+    private final UserRepository userRepository;
     private final ShortCodeGenerator shortCodeGenerator;
     private final ApplicationConfiguration applicationConfiguration;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final RedirectCache redirectCache;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+    private final RedirectSnapshotService redirectSnapshotService;
+    private final Validator validator;
+    private final ShortUrlBatchWriter shortUrlBatchWriter;
+    private final LinkWriteBehind linkWriteBehind;
+    private final TransactionTemplate redirectLoad;
+    private final String shortUrlPrefix;
 
     public UrlServiceImpl(
-            ShortenedUrlRepository shortenedUrlRepository,
+            ShortenedUrlRepository shortenedUrlRepository, UserRepository userRepository,
             ShortCodeGenerator shortCodeGenerator,
-            ApplicationConfiguration applicationConfiguration, UserRepository userRepository
+            ApplicationConfiguration applicationConfiguration, UserExistenceCache userExistenceCache,
+            RedirectCache redirectCache, ShortCodeBloomFilter shortCodeBloomFilter,
+            RedirectSnapshotService redirectSnapshotService,
+            Validator validator, ShortUrlBatchWriter shortUrlBatchWriter, LinkWriteBehind linkWriteBehind,
+            PlatformTransactionManager transactionManager
     ) {
         this.shortenedUrlRepository = shortenedUrlRepository;
+        this.userRepository = userRepository;
         this.shortCodeGenerator = shortCodeGenerator;
         this.applicationConfiguration = applicationConfiguration;
-        this.userRepository = userRepository;
+        this.userExistenceCache = userExistenceCache;
+        this.redirectCache = redirectCache;
+        this.shortCodeBloomFilter = shortCodeBloomFilter;
+        this.redirectSnapshotService = redirectSnapshotService;
+        this.validator = validator;
+        this.shortUrlBatchWriter = shortUrlBatchWriter;
+        this.linkWriteBehind = linkWriteBehind;
+        // Bounds the coalesced redirect lookup, which waiters only wait on for the same load timeout.
+        this.redirectLoad = new TransactionTemplate(transactionManager);
+        this.redirectLoad.setReadOnly(true);
+        this.redirectLoad.setTimeout(
+                (int) Math.max(1, applicationConfiguration.getRedirect().getLoadTimeout().toSeconds()));
+        this.shortUrlPrefix = applicationConfiguration.getBaseUrl() + "/r/";
     }
     
     @Override
-    public ShortenUrlResponse createShortUrl(String originalUrl, String userId) {
-        if (!userRepository.existsByUid(userId)) {
+    public ShortenUrlResponse createShortUrl(String originalUrl, LocalDateTime expiresAt, String userId) {
+        if (!userExistenceCache.exists(userId)) {
             throw new ResourceNotFoundException("User not found");
         }
 
-        String shortCode = generateUniqueShortCode();
+        // The write-behind log does not record expiry, so expiring links are always inserted directly.
+        String shortCode = findReusableShortCode(originalUrl, expiresAt, userId)
+                .orElseGet(() -> linkWriteBehind.isEnabled() && expiresAt == null
+                        ? appendWriteBehind(originalUrl, userId)
+                        : insertWithUniqueShortCode(originalUrl, expiresAt, userId));
+        shortCodeBloomFilter.put(shortCode);
         
-        ShortenedUrl shortenedUrl = new ShortenedUrl();
-        shortenedUrl.setShortCode(shortCode);
-        shortenedUrl.setOriginalUrl(originalUrl);
-        shortenedUrl.setUid(userId);
-        shortenedUrl.setActive(true);
-        shortenedUrl.setCreatedAt(LocalDateTime.now());
-        
-        shortenedUrlRepository.save(shortenedUrl);
-        
-        String shortUrl = applicationConfiguration.getBaseUrl() + "/r/" + shortCode;
+        String shortUrl = shortUrlPrefix + shortCode;
         
         return new ShortenUrlResponse(shortUrl, shortCode, originalUrl);
     }
+
+    @Override
+    public List<BulkShortenItemResponse> createShortUrls(List<String> originalUrls, String userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        BulkShortenItemResponse[] results = new BulkShortenItemResponse[originalUrls.size()];
+        List<Integer> accepted = new ArrayList<>(originalUrls.size());
+        for (int i = 0; i < originalUrls.size(); i++) {
+            String error = validateUrl(originalUrls.get(i));
+            if (error != null) {
+                results[i] = new BulkShortenItemResponse(i, null, error);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + BULK_CHUNK_SIZE, accepted.size()));
+            List<ShortUrlBatchWriter.Outcome> outcomes = shortUrlBatchWriter.insert(
+                    chunk.stream().map(index -> new ShortUrlBatchWriter.Item(originalUrls.get(index), null)).toList(), userId);
+            for (int i = 0; i < chunk.size(); i++) {
+                ShortenedUrl url = outcomes.get(i).saved();
+                String shortUrl = shortUrlPrefix + url.getShortCode();
+                results[chunk.get(i)] = new BulkShortenItemResponse(
+                        chunk.get(i), new ShortenUrlResponse(shortUrl, url.getShortCode(), url.getOriginalUrl()), null);
+            }
+        }
+
+        return Arrays.asList(results);
+    }
     
     @Override
     @Transactional(readOnly = true)
-    public List<UrlListResponse> getUserUrls(String userId) {
+    public UrlPage getUserUrls(String userId, String cursor, Integer limit) {
+        ApplicationConfiguration.Listing listing = applicationConfiguration.getListing();
+        int pageSize = limit == null ? listing.getDefaultPageSize() : limit;
+        if (pageSize < 1 || pageSize > listing.getMaxPageSize()) {
+            throw new ValidationException("Limit must be between 1 and " + listing.getMaxPageSize());
+        }
 
-        List<ShortenedUrl> urls = shortenedUrlRepository.findByUidOrderByCreatedAtDesc(userId);
-        
-        return urls.stream()
+        // One extra row tells whether another page follows.
+        Limit fetch = Limit.of(pageSize + 1);
+        List<UrlListRow> urls;
+        if (cursor == null) {
+            urls = shortenedUrlRepository.findFirstPageByUid(userId, fetch);
+        } else {
+            ListCursor after = ListCursor.decode(cursor);
+            urls = shortenedUrlRepository.findPageByUidAfter(userId, after.createdAt(), after.id(), fetch);
+        }
+
+        String nextCursor = null;
+        if (urls.size() > pageSize) {
+            urls = urls.subList(0, pageSize);
+            UrlListRow last = urls.get(pageSize - 1);
+            nextCursor = new ListCursor(last.createdAt(), last.id()).encode();
+        }
+
+        List<UrlListResponse> page = urls.stream()
                 .map(url -> new UrlListResponse(
-                        url.getId(),
-                        url.getShortCode(),
-                        applicationConfiguration.getBaseUrl() + "/r/" + url.getShortCode(),
-                        url.getOriginalUrl(),
-                        url.getActive(),
-                        url.getCreatedAt()
+                        url.id(),
+                        url.shortCode(),
+                        shortUrlPrefix + url.shortCode(),
+                        url.originalUrl(),
+                        url.active(),
+                        url.createdAt(),
+                        // As of the last click count flush, which is what bumps the links version behind the ETag.
+                        url.clickCount()
                 ))
                 .collect(Collectors.toList());
+        return new UrlPage(page, nextCursor);
     }
     
+    @Override
+    public long getLinksVersion(String userId) {
+        return userRepository.findLinksVersionByUid(userId).orElse(0L);
+    }
+
     @Override
     public void deleteUrl(Long id, String userId) {
         ShortenedUrl shortenedUrl = shortenedUrlRepository.findById(id)
@@ -89,30 +197,143 @@ public class UrlServiceImpl implements UrlService {
         }
         shortenedUrl.setActive(false);
         shortenedUrlRepository.save(shortenedUrl);
+        userRepository.incrementLinksVersion(userId);
+        redirectSnapshotService.update(shortenedUrl.getShortCode(), new RedirectTarget(shortenedUrl.getOriginalUrl(), false));
+        redirectCache.invalidate(shortenedUrl.getShortCode());
+    }
+    
+    @Override
+    public long deactivateUrls(List<Long> ids, String userId) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        long deactivated = 0;
+        for (int from = 0; from < distinct.size(); from += DEACTIVATE_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + DEACTIVATE_CHUNK_SIZE, distinct.size()));
+            deactivated += deactivate(shortenedUrlRepository.findActiveListRowsByUidAndIdIn(userId, chunk), userId);
+        }
+        return deactivated;
+    }
+
+    @Override
+    public long deactivateUrlsCreatedBetween(LocalDateTime from, LocalDateTime to, String userId) {
+        long deactivated = 0;
+        LocalDateTime afterCreatedAt = from;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            // Keyset paging, so rows deactivated by earlier chunks are not scanned again.
+            List<UrlListRow> rows = shortenedUrlRepository.findActiveListRowsCreatedBetweenAfter(
+                    userId, from, to, afterCreatedAt, afterId, Limit.of(DEACTIVATE_CHUNK_SIZE));
+            deactivated += deactivate(rows, userId);
+            if (rows.size() < DEACTIVATE_CHUNK_SIZE) {
+                return deactivated;
+            }
+            UrlListRow last = rows.get(rows.size() - 1);
+            afterCreatedAt = last.createdAt();
+            afterId = last.id();
+        }
+    }
+
+    /**
+     * One set-based update per chunk; the rows were read beforehand only for their short codes,
+     * which the redirect caches are keyed by.
+     */
+    private int deactivate(List<UrlListRow> rows, String userId) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int deactivated = shortenedUrlRepository.deactivateByUidAndIdIn(
+                userId, rows.stream().map(UrlListRow::id).toList(), LocalDateTime.now());
+        if (deactivated == 0) {
+            return 0;
+        }
+        userRepository.incrementLinksVersion(userId);
+        for (UrlListRow row : rows) {
+            redirectSnapshotService.update(row.shortCode(), new RedirectTarget(row.originalUrl(), false));
+        }
+        redirectCache.invalidateAll(rows.stream().map(UrlListRow::shortCode).toList());
+        return deactivated;
     }
     
     @Override
-    @Transactional(readOnly = true)
     public String getOriginalUrl(String shortCode) {
-        ShortenedUrl shortenedUrl = shortenedUrlRepository.findByShortCode(shortCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Short code not found: " + shortCode));
+        RedirectTarget target = redirectCache.get(shortCode, this::findLocalRedirectTarget, this::loadRedirectTarget);
         
-        if (Boolean.FALSE.equals(shortenedUrl.getActive())) {
+        if (Boolean.FALSE.equals(target.active())) {
             throw new BadRequestException("This URL has been deactivated");
         }
+        if (target.isExpiredAt(LocalDateTime.now())) {
+            throw new BadRequestException("This URL has expired");
+        }
         
-        return shortenedUrl.getOriginalUrl();
+        return target.originalUrl();
+    }
+
+    private RedirectTarget findLocalRedirectTarget(String shortCode) {
+        RedirectTarget pending = linkWriteBehind.pendingTarget(shortCode);
+        if (pending != null) {
+            return pending;
+        }
+
+        Optional<RedirectTarget> fromSnapshot = redirectSnapshotService.lookup(shortCode);
+        if (fromSnapshot.isPresent()) {
+            return fromSnapshot.get();
+        }
+
+        if (!shortCodeBloomFilter.mightContain(shortCode)) {
+            throw new ResourceNotFoundException("Short code not found: " + shortCode);
+        }
+        return null;
+    }
+
+    private RedirectTarget loadRedirectTarget(String shortCode) {
+        return redirectLoad.execute(status -> shortenedUrlRepository.findRedirectTargetByShortCode(shortCode))
+                .orElseThrow(() -> new ResourceNotFoundException("Short code not found: " + shortCode));
+    }
+
+    private Optional<String> findReusableShortCode(String originalUrl, LocalDateTime expiresAt, String userId) {
+        // Only links that never expire are reused, and only for requests without an expiry.
+        if (expiresAt != null || !applicationConfiguration.getShortCode().isReuseExisting()) {
+            return Optional.empty();
+        }
+        return shortenedUrlRepository.findActiveShortCodesByDestination(
+                userId, Hashing.sha256Prefix64(originalUrl), originalUrl, Limit.of(1)).stream().findFirst();
+    }
+
+    private String appendWriteBehind(String originalUrl, String userId) {
+        String shortCode = shortCodeGenerator.generate();
+        linkWriteBehind.append(shortCode, userId, originalUrl);
+        return shortCode;
     }
 
-    private String generateUniqueShortCode() {
+    private String insertWithUniqueShortCode(String originalUrl, LocalDateTime expiresAt, String userId) {
         for (int attempt = 0; attempt < MAX_COLLISION_RETRIES; attempt++) {
             String shortCode = shortCodeGenerator.generate();
-            
-            if (!shortenedUrlRepository.existsByShortCode(shortCode)) {
+            ShortenedUrl shortenedUrl = ShortUrlBatchWriter.newShortenedUrl(originalUrl, userId, shortCode);
+            shortenedUrl.setExpiresAt(expiresAt);
+
+            try {
+                shortenedUrlRepository.saveAndFlush(shortenedUrl);
+                userRepository.incrementLinksVersion(userId);
                 return shortCode;
+            } catch (DataIntegrityViolationException e) {
+                // Constraint names differ between databases, so only the rare conflict path
+                // checks whether it was the short code that clashed.
+                if (!shortenedUrlRepository.existsByShortCode(shortCode)) {
+                    throw e;
+                }
             }
         }
         
         throw new UrlShortenerException("Failed to generate unique short code after " + MAX_COLLISION_RETRIES + " attempts");
     }
+
+    private String validateUrl(String originalUrl) {
+        Set<ConstraintViolation<ShortenUrlRequest>> violations = validator.validate(new ShortenUrlRequest(originalUrl));
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
 }
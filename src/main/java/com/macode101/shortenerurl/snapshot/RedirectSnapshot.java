@@ -0,0 +1,126 @@
+package com.macode101.shortenerurl.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, memory-mapped view of a redirect snapshot file.
+ *
+ * <pre>
+ * header : int magic, int version, long createdAtMillis, int entryCount
+ * index  : entryCount x (long key, long pointer), sorted by unsigned key
+ * data   : UTF-8 original URLs, back to back
+ * </pre>
+ *
+ * A key is the short code packed big-endian into a long (codes are at most 8 ASCII
+ * characters), so unsigned key order is the lexicographic order of the codes.
+ * A pointer holds the data offset in its upper 48 bits and the URL length in the lower 16.
+ */
+public final class RedirectSnapshot {
+
+    static final int MAGIC = 0x52534E50;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final int MAX_CODE_LENGTH = Long.BYTES;
+    static final int LENGTH_BITS = 16;
+    static final long NO_KEY = 0L;
+
+    private final MappedByteBuffer buffer;
+    private final long createdAtMillis;
+    private final int entryCount;
+    private final int dataStart;
+    private final long fileSize;
+
+    private RedirectSnapshot(MappedByteBuffer buffer, long fileSize) {
+        this.buffer = buffer;
+        this.fileSize = fileSize;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a redirect snapshot file");
+        }
+        this.createdAtMillis = buffer.getLong(8);
+        this.entryCount = buffer.getInt(16);
+        this.dataStart = HEADER_SIZE + entryCount * INDEX_ENTRY_SIZE;
+    }
+
+    public static RedirectSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot file exceeds 2 GiB and cannot be mapped: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new RedirectSnapshot(buffer, size);
+        }
+    }
+
+    public String lookup(String shortCode) {
+        long key = packKey(shortCode);
+        if (key == NO_KEY) {
+            return null;
+        }
+
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entryOffset = HEADER_SIZE + mid * INDEX_ENTRY_SIZE;
+            int cmp = Long.compareUnsigned(buffer.getLong(entryOffset), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return readUrl(buffer.getLong(entryOffset + Long.BYTES));
+            }
+        }
+        return null;
+    }
+
+    public long createdAtMillis() {
+        return createdAtMillis;
+    }
+
+    public int entryCount() {
+        return entryCount;
+    }
+
+    public long fileSize() {
+        return fileSize;
+    }
+
+    private String readUrl(long pointer) {
+        int offset = (int) (pointer >>> LENGTH_BITS);
+        int length = (int) (pointer & ((1L << LENGTH_BITS) - 1));
+        byte[] bytes = new byte[length];
+        buffer.get(dataStart + offset, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long packKey(String shortCode) {
+        int length = shortCode.length();
+        if (length == 0 || length > MAX_CODE_LENGTH) {
+            return NO_KEY;
+        }
+        long key = 0;
+        for (int i = 0; i < MAX_CODE_LENGTH; i++) {
+            int c = i < length ? shortCode.charAt(i) : 0;
+            if (c > 0x7F || (i < length && c == 0)) {
+                return NO_KEY;
+            }
+            key = (key << Byte.SIZE) | c;
+        }
+        return key;
+    }
+
+    static ByteBuffer header(long createdAtMillis, int entryCount) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(createdAtMillis).putInt(entryCount);
+        return header.flip();
+    }
+}
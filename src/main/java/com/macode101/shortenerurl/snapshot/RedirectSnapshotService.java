@@ -0,0 +1,204 @@
+package com.macode101.shortenerurl.snapshot;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.RedirectEntry;
+import com.macode101.shortenerurl.dto.RedirectTarget;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Serves redirect lookups from a local memory-mapped snapshot of all active links so the
+ * redirect tier keeps working while the database is unavailable. Changes made after the
+ * snapshot was taken are kept in an in-memory overlay, fed by local writes and by polling
+ * {@code updated_at}; the snapshot itself is rewritten on a longer interval.
+ * A miss here is not authoritative and callers must fall back to the database.
+ */
+@Component
+public class RedirectSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedirectSnapshotService.class);
+
+    private final ShortenedUrlRepository shortenedUrlRepository;
+    private final ApplicationConfiguration.Snapshot config;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer buildTimer;
+    private final Timer lookupTimer;
+
+    private volatile State state;
+    private volatile Map<String, RedirectTarget> pendingOverlay;
+    private volatile LocalDateTime deltaWatermark;
+
+    public RedirectSnapshotService(
+            ShortenedUrlRepository shortenedUrlRepository,
+            ApplicationConfiguration applicationConfiguration,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.shortenedUrlRepository = shortenedUrlRepository;
+        this.config = applicationConfiguration.getRedirect().getSnapshot();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.buildTimer = Timer.builder("redirect.snapshot.build")
+                .description("Time taken to export and map a redirect snapshot")
+                .register(meterRegistry);
+        this.lookupTimer = Timer.builder("redirect.snapshot.lookup")
+                .description("Latency of redirect lookups against the snapshot")
+                .register(meterRegistry);
+        Gauge.builder("redirect.snapshot.file.size", this, s -> s.state == null ? 0 : s.state.snapshot().fileSize())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("redirect.snapshot.entries", this, s -> s.state == null ? 0 : s.state.snapshot().entryCount())
+                .register(meterRegistry);
+        Gauge.builder("redirect.snapshot.overlay.size", this, s -> s.state == null ? 0 : s.state.overlay().size())
+                .register(meterRegistry);
+    }
+
+    public Optional<RedirectTarget> lookup(String shortCode) {
+        State current = state;
+        if (current == null) {
+            return Optional.empty();
+        }
+        long startedAt = System.nanoTime();
+        try {
+            RedirectTarget changed = current.overlay().get(shortCode);
+            if (changed != null) {
+                return Optional.of(changed);
+            }
+            String originalUrl = current.snapshot().lookup(shortCode);
+            return originalUrl == null ? Optional.empty() : Optional.of(new RedirectTarget(originalUrl, true));
+        } finally {
+            lookupTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void update(String shortCode, RedirectTarget target) {
+        State current = state;
+        if (current != null) {
+            merge(current.overlay(), shortCode, target);
+        }
+        Map<String, RedirectTarget> next = pendingOverlay;
+        if (next != null) {
+            merge(next, shortCode, target);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Path path = Path.of(config.getPath());
+        if (Files.exists(path)) {
+            try {
+                RedirectSnapshot snapshot = RedirectSnapshot.open(path);
+                deltaWatermark = fromMillis(snapshot.createdAtMillis());
+                state = new State(snapshot, new ConcurrentHashMap<>());
+                logger.info("Loaded redirect snapshot {} with {} entries", path, snapshot.entryCount());
+                applyDeltas();
+                return;
+            } catch (IOException | IllegalStateException e) {
+                logger.warn("Ignoring unreadable redirect snapshot {}", path, e);
+            }
+        }
+        rebuild();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${application.redirect.snapshot.rebuild-interval:PT1H}",
+            initialDelayString = "${application.redirect.snapshot.rebuild-interval:PT1H}"
+    )
+    public synchronized void rebuild() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Path path = Path.of(config.getPath());
+        LocalDateTime snapshotTime = LocalDateTime.now();
+        Map<String, RedirectTarget> overlay = new ConcurrentHashMap<>();
+        pendingOverlay = overlay;
+        try {
+            long startedAt = System.nanoTime();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<RedirectEntry> entries = shortenedUrlRepository.streamActiveRedirectEntries()) {
+                    RedirectSnapshotWriter.write(entries, path, toMillis(snapshotTime));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            RedirectSnapshot snapshot = RedirectSnapshot.open(path);
+            buildTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+            deltaWatermark = snapshotTime;
+            applyDeltasTo(overlay);
+            state = new State(snapshot, overlay);
+
+            logger.info("Wrote redirect snapshot {} with {} entries ({} bytes)",
+                    path, snapshot.entryCount(), snapshot.fileSize());
+        } catch (IOException | UncheckedIOException | DataAccessException e) {
+            logger.warn("Failed to rebuild redirect snapshot {}", path, e);
+        } finally {
+            pendingOverlay = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.redirect.snapshot.delta-interval:PT10S}")
+    public synchronized void applyDeltas() {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+        try {
+            applyDeltasTo(current.overlay());
+        } catch (DataAccessException e) {
+            logger.warn("Failed to apply redirect snapshot deltas: {}", e.getMessage());
+        }
+    }
+
+    private void applyDeltasTo(Map<String, RedirectTarget> overlay) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = deltaWatermark.minus(config.getDeltaOverlap());
+        for (RedirectEntry entry : shortenedUrlRepository.findRedirectEntriesUpdatedAfter(since)) {
+            merge(overlay, entry.shortCode(), new RedirectTarget(entry.originalUrl(), entry.active(), entry.expiresAt()));
+        }
+        deltaWatermark = now;
+    }
+
+    private static void merge(Map<String, RedirectTarget> overlay, String shortCode, RedirectTarget target) {
+        // Links only ever move from active to inactive, so a deactivation is never overwritten
+        // by an older active row read concurrently from the database.
+        overlay.merge(shortCode, target, (existing, incoming) ->
+                Boolean.FALSE.equals(existing.active()) ? existing : incoming);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private record State(RedirectSnapshot snapshot, Map<String, RedirectTarget> overlay) {}
+}
@@ -0,0 +1,146 @@
+package com.macode101.shortenerurl.snapshot;
+
+import com.macode101.shortenerurl.dto.RedirectEntry;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a {@link RedirectSnapshot} file. URLs are spooled to a side file in arrival
+ * order while only the 16-byte index entries are kept in memory and sorted; the
+ * finished file replaces the previous snapshot with an atomic rename, so readers
+ * holding the old mapping are unaffected.
+ */
+final class RedirectSnapshotWriter {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int MAX_URL_BYTES = (1 << RedirectSnapshot.LENGTH_BITS) - 1;
+
+    private RedirectSnapshotWriter() {}
+
+    static int write(Stream<RedirectEntry> entries, Path target, long createdAtMillis) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path dataFile = Files.createTempFile(directory, "redirect-snapshot", ".data");
+        Path tmpFile = directory.resolve(target.getFileName() + ".tmp");
+
+        try {
+            long[] keys = new long[1024];
+            long[] pointers = new long[1024];
+            int count = 0;
+            long offset = 0;
+
+            try (OutputStream data = new BufferedOutputStream(Files.newOutputStream(dataFile), 1 << 16)) {
+                Iterator<RedirectEntry> iterator = entries.iterator();
+                while (iterator.hasNext()) {
+                    RedirectEntry entry = iterator.next();
+                    long key = RedirectSnapshot.packKey(entry.shortCode());
+                    byte[] url = entry.originalUrl().getBytes(StandardCharsets.UTF_8);
+                    if (key == RedirectSnapshot.NO_KEY || url.length > MAX_URL_BYTES) {
+                        continue;
+                    }
+                    if (count == keys.length) {
+                        keys = Arrays.copyOf(keys, count * 2);
+                        pointers = Arrays.copyOf(pointers, count * 2);
+                    }
+                    keys[count] = key;
+                    pointers[count] = (offset << RedirectSnapshot.LENGTH_BITS) | url.length;
+                    data.write(url);
+                    offset += url.length;
+                    count++;
+                }
+            }
+
+            long fileSize = RedirectSnapshot.HEADER_SIZE + (long) count * RedirectSnapshot.INDEX_ENTRY_SIZE + offset;
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot would exceed 2 GiB (" + fileSize + " bytes)");
+            }
+
+            sort(keys, pointers, 0, count);
+
+            try (FileChannel out = FileChannel.open(tmpFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 FileChannel in = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+                writeFully(out, RedirectSnapshot.header(createdAtMillis, count));
+
+                ByteBuffer index = ByteBuffer.allocate(RedirectSnapshot.INDEX_ENTRY_SIZE * 4096);
+                for (int i = 0; i < count; i++) {
+                    if (!index.hasRemaining()) {
+                        writeFully(out, index.flip());
+                        index.clear();
+                    }
+                    index.putLong(keys[i]).putLong(pointers[i]);
+                }
+                writeFully(out, index.flip());
+
+                long transferred = 0;
+                while (transferred < offset) {
+                    transferred += in.transferTo(transferred, offset - transferred, out);
+                }
+                out.force(true);
+            }
+
+            Files.move(tmpFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return count;
+        } finally {
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void sort(long[] keys, long[] values, int from, int to) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            long pivot = keys[(from + to) >>> 1];
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (Long.compareUnsigned(keys[i], pivot) < 0) {
+                    i++;
+                }
+                while (Long.compareUnsigned(keys[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            if (j - from < to - i) {
+                sort(keys, values, from, j + 1);
+                from = i;
+            } else {
+                sort(keys, values, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && Long.compareUnsigned(keys[j - 1], keys[j]) > 0; j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(long[] keys, long[] values, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+}
@@ -0,0 +1,28 @@
+package com.macode101.shortenerurl.util;
+
+public final class Base62 {
+
+    public static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    public static final int BASE = ALPHABET.length();
+
+    private Base62() {}
+
+    /**
+     * Encodes {@code value} as exactly {@code length} digits, most significant first.
+     */
+    public static String encode(long value, int length) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        char[] digits = new char[length];
+        long remaining = value;
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = ALPHABET.charAt((int) (remaining % BASE));
+            remaining /= BASE;
+        }
+        if (remaining != 0) {
+            throw new IllegalArgumentException(value + " does not fit in " + length + " Base62 digits");
+        }
+        return new String(digits);
+    }
+}
@@ -1,14 +1,14 @@
 package com.macode101.shortenerurl.util;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
 
 @Component
+@ConditionalOnProperty(name = "application.short-code.generator", havingValue = "random", matchIfMissing = true)
 public class Base62ShortCodeGenerator implements ShortCodeGenerator {
     
-    private static final String BASE62_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int BASE = BASE62_CHARS.length();
     private static final int MIN_LENGTH = 6;
     private static final int MAX_LENGTH = 8;
 
@@ -25,8 +25,8 @@ public class Base62ShortCodeGenerator implements ShortCodeGenerator {
         StringBuilder shortCode = new StringBuilder(length);
         
         for (int i = 0; i < length; i++) {
-            int randomIndex = secureRandom.nextInt(BASE);
-            shortCode.append(BASE62_CHARS.charAt(randomIndex));
+            int randomIndex = secureRandom.nextInt(Base62.BASE);
+            shortCode.append(Base62.ALPHABET.charAt(randomIndex));
         }
         
         return shortCode.toString();
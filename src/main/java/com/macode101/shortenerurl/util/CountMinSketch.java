@@ -0,0 +1,57 @@
+package com.macode101.shortenerurl.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch over strings. Estimates never undercount; they overcount
+ * by at most {@code e / width} of the total count with probability {@code 1 - e^-depth}.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    public long add(String key) {
+        long h1 = Hashing.hash64(key, Hashing.SEED_PRIMARY);
+        long h2 = Hashing.hash64(key, Hashing.SEED_SECONDARY);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(cell(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        long h1 = Hashing.hash64(key, Hashing.SEED_PRIMARY);
+        long h2 = Hashing.hash64(key, Hashing.SEED_SECONDARY);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(cell(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter so that old traffic fades out exponentially.
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    private int cell(int row, long h1, long h2) {
+        long combined = (h1 + row * h2) & Long.MAX_VALUE;
+        return row * width + (int) (combined % width);
+    }
+}
@@ -0,0 +1,52 @@
+package com.macode101.shortenerurl.util;
+
+/**
+ * Keyed bijection on {@code [0, domainSize)}. A balanced Feistel network permutes the
+ * smallest even-width bit space covering the domain; values that land outside the domain
+ * are fed through the network again (cycle walking) until they fall back inside, which
+ * keeps the mapping a bijection on the domain itself.
+ */
+public class FeistelPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final long domainSize;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public FeistelPermutation(long domainSize, String key) {
+        if (domainSize < 2 || domainSize > (1L << 62)) {
+            throw new IllegalArgumentException("Domain size must be between 2 and 2^62: " + domainSize);
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(domainSize - 1);
+        this.domainSize = domainSize;
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        for (int round = 0; round < ROUNDS; round++) {
+            roundKeys[round] = Hashing.hash64(key, Hashing.SEED_PRIMARY + round);
+        }
+    }
+
+    public long permute(long value) {
+        if (value < 0 || value >= domainSize) {
+            throw new IllegalArgumentException("Value outside permutation domain: " + value);
+        }
+        long result = value;
+        do {
+            result = encrypt(result);
+        } while (result >= domainSize);
+        return result;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (Hashing.mix64(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+}
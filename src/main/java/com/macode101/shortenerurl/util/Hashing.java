@@ -0,0 +1,45 @@
+package com.macode101.shortenerurl.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public final class Hashing {
+
+    public static final long SEED_PRIMARY = 0x9E3779B97F4A7C15L;
+    public static final long SEED_SECONDARY = 0xC2B2AE3D27D4EB4FL;
+
+    private Hashing() {}
+
+    /**
+     * Seeded 64-bit FNV-1a over the UTF-8 bytes of {@code value}, finished with the
+     * MurmurHash3 mixer so that every output bit depends on every input bit.
+     */
+    public static long hash64(String value, long seed) {
+        long h = seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ b) * 0x100000001B3L;
+        }
+        return mix64(h);
+    }
+
+    /**
+     * First eight bytes of the SHA-256 of the UTF-8 bytes of {@code value}, read big-endian.
+     * Unlike {@link #hash64} it can be reproduced in SQL, which is what backfills rely on.
+     */
+    public static long sha256Prefix64(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,247 @@
+package com.macode101.shortenerurl.util;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog cardinality sketch over pre-hashed 64-bit values. With precision {@code p}
+ * it keeps {@code 2^p} one-byte registers and estimates distinct counts with a relative
+ * standard error of about {@code 1.04 / sqrt(2^p)}. Sketches of equal precision merge by
+ * taking the register-wise maximum, which is idempotent, so the same data may safely be
+ * merged more than once.
+ * <p>
+ * A new sketch is sparse: it keeps only its non-zero registers as sorted
+ * {@code (index << 8) | rank} entries and is promoted to the dense register array once
+ * those would take more space, at {@code 2^p / 4} entries. Both forms hold exactly the same
+ * registers, so estimates do not depend on the form. Serialized as the precision byte
+ * followed by the registers when dense, or as the precision byte with its high bit
+ * set followed by three bytes (index, rank) per entry when sparse.
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final int SPARSE_FLAG = 0x80;
+    private static final int SPARSE_ENTRY_SIZE = 3;
+    private static final int INITIAL_SPARSE_CAPACITY = 4;
+
+    private final int precision;
+    private final int sparseLimit;
+
+    // Null while sparse; volatile so that add can skip the lock once a register is known to be high enough.
+    private volatile byte[] registers;
+    private int[] sparse = new int[INITIAL_SPARSE_CAPACITY];
+    private int sparseSize;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 4 and 16: " + precision);
+        }
+        this.precision = precision;
+        this.sparseLimit = (1 << precision) / 4;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Empty HyperLogLog serialization");
+        }
+        boolean sparse = (bytes[0] & SPARSE_FLAG) != 0;
+        HyperLogLog sketch = new HyperLogLog(bytes[0] & 0xFF & ~SPARSE_FLAG);
+        int m = 1 << sketch.precision;
+        if (!sparse) {
+            if (bytes.length != m + 1) {
+                throw new IllegalArgumentException("Corrupt HyperLogLog serialization of " + bytes.length + " bytes");
+            }
+            sketch.registers = Arrays.copyOfRange(bytes, 1, bytes.length);
+            sketch.sparse = null;
+            return sketch;
+        }
+        if ((bytes.length - 1) % SPARSE_ENTRY_SIZE != 0) {
+            throw new IllegalArgumentException("Corrupt sparse HyperLogLog serialization of " + bytes.length + " bytes");
+        }
+        int previous = -1;
+        for (int offset = 1; offset < bytes.length; offset += SPARSE_ENTRY_SIZE) {
+            int index = (bytes[offset] & 0xFF) << 8 | (bytes[offset + 1] & 0xFF);
+            int rank = bytes[offset + 2];
+            if (index <= previous || index >= m || rank < 1 || rank > 65 - sketch.precision) {
+                throw new IllegalArgumentException("Corrupt sparse HyperLogLog entry at byte " + offset);
+            }
+            sketch.set(index, (byte) rank);
+            previous = index;
+        }
+        return sketch;
+    }
+
+    /**
+     * @return the size of a dense serialization, which no sparse one exceeds
+     */
+    public static int serializedSize(int precision) {
+        return (1 << precision) + 1;
+    }
+
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // The sentinel bit caps the rank at 64 - precision + 1 when the remaining bits are all zero.
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        // Registers only ever grow, so the unsynchronized read can at worst send us into the lock needlessly.
+        byte[] dense = registers;
+        if (dense != null && rank <= dense[index]) {
+            return;
+        }
+        synchronized (this) {
+            set(index, rank);
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException(
+                    "Cannot merge sketches of precision " + other.precision + " into " + precision);
+        }
+        int[] entries = other.snapshotEntries();
+        synchronized (this) {
+            for (int entry : entries) {
+                set(entry >>> 8, (byte) entry);
+            }
+        }
+    }
+
+    public long estimate() {
+        byte[] snapshot = snapshotRegisters();
+        int m = snapshot.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : snapshot) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public synchronized boolean isSparse() {
+        return registers == null;
+    }
+
+    public synchronized byte[] toBytes() {
+        if (registers != null) {
+            byte[] bytes = new byte[registers.length + 1];
+            bytes[0] = (byte) precision;
+            System.arraycopy(registers, 0, bytes, 1, registers.length);
+            return bytes;
+        }
+        byte[] bytes = new byte[1 + sparseSize * SPARSE_ENTRY_SIZE];
+        bytes[0] = (byte) (precision | SPARSE_FLAG);
+        for (int i = 0, offset = 1; i < sparseSize; i++, offset += SPARSE_ENTRY_SIZE) {
+            int index = sparse[i] >>> 8;
+            bytes[offset] = (byte) (index >>> 8);
+            bytes[offset + 1] = (byte) index;
+            bytes[offset + 2] = (byte) sparse[i];
+        }
+        return bytes;
+    }
+
+    /**
+     * Raises register {@code index} to {@code rank}; callers hold the lock.
+     */
+    private void set(int index, byte rank) {
+        if (registers != null) {
+            if (rank > registers[index]) {
+                registers[index] = rank;
+            }
+            return;
+        }
+        int position = find(index);
+        if (position >= 0) {
+            if (rank > (byte) sparse[position]) {
+                sparse[position] = index << 8 | rank;
+            }
+            return;
+        }
+        if (sparseSize == sparseLimit) {
+            promote();
+            registers[index] = rank;
+            return;
+        }
+        position = -position - 1;
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(sparse.length * 2, sparseLimit));
+        }
+        System.arraycopy(sparse, position, sparse, position + 1, sparseSize - position);
+        sparse[position] = index << 8 | rank;
+        sparseSize++;
+    }
+
+    private int find(int index) {
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = sparse[mid] >>> 8;
+            if (midIndex < index) {
+                low = mid + 1;
+            } else if (midIndex > index) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void promote() {
+        byte[] dense = sparseToDense();
+        sparse = null;
+        sparseSize = 0;
+        registers = dense;
+    }
+
+    private byte[] sparseToDense() {
+        byte[] dense = new byte[1 << precision];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> 8] = (byte) sparse[i];
+        }
+        return dense;
+    }
+
+    private synchronized int[] snapshotEntries() {
+        if (registers == null) {
+            return Arrays.copyOf(sparse, sparseSize);
+        }
+        int[] entries = new int[registers.length];
+        int count = 0;
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] != 0) {
+                entries[count++] = i << 8 | registers[i];
+            }
+        }
+        return Arrays.copyOf(entries, count);
+    }
+
+    private synchronized byte[] snapshotRegisters() {
+        return registers != null ? Arrays.copyOf(registers, registers.length) : sparseToDense();
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
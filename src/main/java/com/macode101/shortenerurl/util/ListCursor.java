@@ -0,0 +1,30 @@
+package com.macode101.shortenerurl.util;
+
+import com.macode101.shortenerurl.exception.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a listing ordered by {@code (created_at DESC, id DESC)}: the
+ * sort key of the last row returned, Base64url-encoded so clients treat it as a token.
+ */
+public record ListCursor(LocalDateTime createdAt, long id) {
+
+    public String encode() {
+        byte[] raw = (id + "|" + createdAt).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static ListCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new ListCursor(LocalDateTime.parse(raw.substring(separator + 1)),
+                    Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
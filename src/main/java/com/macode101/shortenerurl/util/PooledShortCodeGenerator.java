@@ -0,0 +1,141 @@
+package com.macode101.shortenerurl.util;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.exception.UrlShortenerException;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out random Base62 codes from a bounded pool of candidates that a background
+ * thread has already checked against the database, one {@code IN (...)} query per batch.
+ * Taking a code is a queue poll; dropping below the low-water mark wakes the filler.
+ * When the pool is empty a small batch is generated and checked on the caller's thread.
+ * A pooled code could still be taken by another node before it is saved, in which case
+ * the insert conflicts and is retried with another code.
+ */
+@Component
+@ConditionalOnProperty(name = "application.short-code.generator", havingValue = "pooled")
+public class PooledShortCodeGenerator implements ShortCodeGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledShortCodeGenerator.class);
+
+    private final ShortCodeGenerator candidates;
+    private final ShortenedUrlRepository shortenedUrlRepository;
+    private final BlockingQueue<String> pool;
+    private final ApplicationConfiguration.Pool config;
+    private final ExecutorService filler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "short-code-pool-filler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refillPending = new AtomicBoolean();
+    private final Timer refillTimer;
+    private final Counter fallbacks;
+
+    public PooledShortCodeGenerator(
+            ShortenedUrlRepository shortenedUrlRepository,
+            ApplicationConfiguration applicationConfiguration,
+            MeterRegistry meterRegistry
+    ) {
+        this(new Base62ShortCodeGenerator(), shortenedUrlRepository, applicationConfiguration.getShortCode().getPool(), meterRegistry);
+    }
+
+    PooledShortCodeGenerator(
+            ShortCodeGenerator candidates,
+            ShortenedUrlRepository shortenedUrlRepository,
+            ApplicationConfiguration.Pool config,
+            MeterRegistry meterRegistry
+    ) {
+        this.candidates = candidates;
+        this.shortenedUrlRepository = shortenedUrlRepository;
+        this.config = config;
+        this.pool = new ArrayBlockingQueue<>(config.getSize());
+        this.refillTimer = Timer.builder("short_code.pool.refill")
+                .description("Time taken to generate and verify one batch of pooled short codes")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("short_code.pool.fallbacks")
+                .description("Short codes generated on the request thread because the pool was empty")
+                .register(meterRegistry);
+        Gauge.builder("short_code.pool.size", pool, BlockingQueue::size)
+                .description("Verified short codes ready to be handed out")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String generate() {
+        String shortCode = pool.poll();
+        if (pool.size() < config.getLowWaterMark()) {
+            requestRefill();
+        }
+        if (shortCode != null) {
+            return shortCode;
+        }
+
+        fallbacks.increment();
+        List<String> verified = verifiedBatch(config.getFallbackBatchSize());
+        if (verified.isEmpty()) {
+            throw new UrlShortenerException("Failed to generate an unused short code");
+        }
+        verified.stream().skip(1).forEach(pool::offer);
+        return verified.get(0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestRefill() {
+        if (refillPending.compareAndSet(false, true)) {
+            filler.execute(this::refill);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        filler.shutdownNow();
+    }
+
+    int size() {
+        return pool.size();
+    }
+
+    void refill() {
+        try {
+            while (pool.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                int batchSize = Math.min(config.getRefillBatchSize(), pool.remainingCapacity());
+                List<String> verified = refillTimer.record(() -> verifiedBatch(batchSize));
+                verified.forEach(pool::offer);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Failed to refill short code pool: {}", e.getMessage());
+        } finally {
+            refillPending.set(false);
+        }
+    }
+
+    private List<String> verifiedBatch(int batchSize) {
+        Set<String> batch = new LinkedHashSet<>();
+        while (batch.size() < batchSize) {
+            batch.add(candidates.generate());
+        }
+        Set<String> taken = new HashSet<>(shortenedUrlRepository.findExistingShortCodes(batch));
+        return batch.stream().filter(code -> !taken.contains(code)).toList();
+    }
+}
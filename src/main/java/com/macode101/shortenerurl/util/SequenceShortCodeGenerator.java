@@ -0,0 +1,85 @@
+package com.macode101.shortenerurl.util;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.exception.UrlShortenerException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives short codes from {@code short_code_seq} instead of random draws. IDs are leased
+ * in blocks (hi/lo), so the sequence is hit once per {@code block-size} codes, and every ID
+ * is mapped through a keyed permutation of the 7-character Base62 space before encoding,
+ * so consecutive codes are not guessable from one another. Distinct IDs always yield
+ * distinct codes, so inserts never conflict with each other.
+ */
+@Component
+@ConditionalOnProperty(name = "application.short-code.generator", havingValue = "sequence")
+public class SequenceShortCodeGenerator implements ShortCodeGenerator {
+
+    static final String SEQUENCE_NAME = "short_code_seq";
+    static final int CODE_LENGTH = 7;
+    static final long CODE_SPACE = pow(Base62.BASE, CODE_LENGTH);
+
+    private final HiLoSource hiLoSource;
+    private final FeistelPermutation permutation;
+    private final int blockSize;
+
+    private long next;
+    private long limit;
+
+    public SequenceShortCodeGenerator(
+            JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory,
+            ApplicationConfiguration applicationConfiguration
+    ) {
+        this(nextValueQuery(jdbcTemplate, entityManagerFactory), applicationConfiguration.getShortCode());
+    }
+
+    SequenceShortCodeGenerator(HiLoSource hiLoSource, ApplicationConfiguration.ShortCode config) {
+        this.hiLoSource = hiLoSource;
+        this.blockSize = config.getBlockSize();
+        this.permutation = new FeistelPermutation(CODE_SPACE, config.getPermutationKey());
+    }
+
+    @Override
+    public String generate() {
+        return Base62.encode(permutation.permute(nextId()), CODE_LENGTH);
+    }
+
+    private synchronized long nextId() {
+        if (next == limit) {
+            long hi = hiLoSource.nextHi();
+            next = hi * blockSize;
+            limit = next + blockSize;
+        }
+        if (next >= CODE_SPACE) {
+            throw new UrlShortenerException("Short code space of " + CODE_SPACE + " codes is exhausted");
+        }
+        return next++;
+    }
+
+    private static HiLoSource nextValueQuery(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        String sql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSequenceNextValString(SEQUENCE_NAME);
+        return () -> jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static long pow(int base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    interface HiLoSource {
+        long nextHi();
+    }
+}
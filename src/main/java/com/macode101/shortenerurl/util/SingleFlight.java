@@ -0,0 +1,79 @@
+package com.macode101.shortenerurl.util;
+
+import com.macode101.shortenerurl.exception.UrlShortenerException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Collapses concurrent loads of the same key into one call. The first caller runs the
+ * loader on its own thread; callers arriving while it is in flight wait for its result
+ * (or its exception) for at most {@code timeout}. A waiter that times out drops the
+ * in-flight entry so that a hung load cannot block later callers. The leader is not
+ * interrupted, so its loader must bound its own work, for example with a query timeout.
+ * {@link #coalescedCount} counts the waiters that joined a load.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+    private final long timeoutMillis;
+
+    public SingleFlight(Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public V execute(K key, Function<K, V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return await(key, existing);
+        }
+
+        try {
+            V value = loader.apply(key);
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            inFlight.remove(key, future);
+            throw new UrlShortenerException("Timed out waiting for in-flight load of " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new UrlShortenerException("In-flight load of " + key + " failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UrlShortenerException("Interrupted waiting for in-flight load of " + key, e);
+        }
+    }
+}
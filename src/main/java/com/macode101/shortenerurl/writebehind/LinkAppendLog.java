@@ -0,0 +1,279 @@
+package com.macode101.shortenerurl.writebehind;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of created links, split into numbered segment files. Each record is
+ * {@code [int payload length][int CRC32C][payload]}, where the payload is the short code,
+ * uid and URL followed by the creation time; a torn or corrupt record ends its segment on
+ * replay. Appends are made durable by group commit: whichever caller forces
+ * the file covers every record written before it, so concurrent creators share fsyncs.
+ * {@link #rotate} seals the active segment so that it can be deleted once flushed.
+ * Records that cannot be inserted are {@linkplain #park parked} in a separate dead-letter
+ * file in the same format, which is never replayed or deleted.
+ */
+final class LinkAppendLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkAppendLog.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("links-(\\d{20})\\.log");
+    private static final String DEAD_LETTER_NAME = "links-dead-letter.log";
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD_SIZE = 3 * 65_537;
+
+    private final Path directory;
+    private final Object forceLock = new Object();
+
+    private FileChannel active;
+    private long activeSegment;
+    private boolean activeEmpty = true;
+    private long appended;
+    private volatile long durable;
+
+    record Replayed(long segment, PendingLink link) {}
+
+    private LinkAppendLog(Path directory, long firstSegment) throws IOException {
+        this.directory = directory;
+        this.activeSegment = firstSegment;
+        this.active = openSegment(firstSegment);
+    }
+
+    /**
+     * Opens a new active segment after any existing ones, which are left sealed for {@link #readSealed}.
+     */
+    static LinkAppendLog open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Long> segments = listSegments(directory);
+        return new LinkAppendLog(directory, segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1);
+    }
+
+    List<Replayed> readSealed() throws IOException {
+        long activeId = activeSegment();
+        List<Replayed> replayed = new ArrayList<>();
+        for (long segment : listSegments(directory)) {
+            if (segment < activeId) {
+                readSegment(segment, replayed);
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Writes {@code link} to the active segment without forcing it to disk.
+     *
+     * @return the ticket to pass to {@link #sync}
+     */
+    synchronized long write(PendingLink link) throws IOException {
+        ByteBuffer record = encode(link);
+        long position = active.position();
+        try {
+            while (record.hasRemaining()) {
+                active.write(record);
+            }
+        } catch (IOException e) {
+            active.truncate(position);
+            throw e;
+        }
+        activeEmpty = false;
+        return ++appended;
+    }
+
+    synchronized long activeSegment() {
+        return activeSegment;
+    }
+
+    /**
+     * Returns once the record with {@code ticket}, and every record written before it, is on disk.
+     */
+    void sync(long ticket) throws IOException {
+        if (durable >= ticket) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (durable >= ticket) {
+                return;
+            }
+            FileChannel channel;
+            long target;
+            synchronized (this) {
+                channel = active;
+                target = appended;
+            }
+            channel.force(false);
+            durable = target;
+        }
+    }
+
+    /**
+     * Seals the active segment if it holds any record and starts a new one.
+     *
+     * @return the newest sealed segment; every record written so far is in it or an older one
+     */
+    long rotate() throws IOException {
+        synchronized (forceLock) {
+            synchronized (this) {
+                if (activeEmpty) {
+                    return activeSegment - 1;
+                }
+                FileChannel next = openSegment(activeSegment + 1);
+                active.force(false);
+                active.close();
+                durable = appended;
+                active = next;
+                activeSegment++;
+                activeEmpty = true;
+                return activeSegment - 1;
+            }
+        }
+    }
+
+    /**
+     * Durably appends {@code link} to the dead-letter file so that it survives the deletion of its segment.
+     */
+    synchronized void park(PendingLink link) throws IOException {
+        ByteBuffer record = encode(link);
+        try (FileChannel channel = FileChannel.open(directory.resolve(DEAD_LETTER_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+        }
+    }
+
+    List<PendingLink> readParked() throws IOException {
+        Path path = directory.resolve(DEAD_LETTER_NAME);
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        List<Replayed> parked = new ArrayList<>();
+        readRecords(path, 0, parked);
+        return parked.stream().map(Replayed::link).toList();
+    }
+
+    void deleteThrough(long segment) throws IOException {
+        for (long existing : listSegments(directory)) {
+            if (existing <= segment) {
+                Files.deleteIfExists(segmentPath(existing));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (forceLock) {
+            synchronized (this) {
+                active.force(false);
+                active.close();
+                durable = appended;
+            }
+        }
+    }
+
+    static ByteBuffer encode(PendingLink link) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + link.originalUrl().length());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(link.shortCode());
+            out.writeUTF(link.uid());
+            out.writeUTF(link.originalUrl());
+            out.writeLong(link.createdAt().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(link.createdAt().getNano());
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+    }
+
+    private void readSegment(long segment, List<Replayed> target) throws IOException {
+        readRecords(segmentPath(segment), segment, target);
+    }
+
+    private static void readRecords(Path path, long segment, List<Replayed> target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD_SIZE || length > buffer.remaining()) {
+                buffer.position(buffer.position() - HEADER_SIZE);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(buffer.position() - HEADER_SIZE - length);
+                break;
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+                target.add(new Replayed(segment, decode(in)));
+            }
+        }
+        if (buffer.hasRemaining()) {
+            logger.warn("Ignoring {} bytes of torn or corrupt records at the end of {}",
+                    buffer.remaining(), path);
+        }
+    }
+
+    private static PendingLink decode(DataInputStream in) throws IOException {
+        String shortCode = in.readUTF();
+        String uid = in.readUTF();
+        String originalUrl = in.readUTF();
+        // Records written before the creation time was logged are stamped with the replay time.
+        LocalDateTime createdAt = in.available() > 0
+                ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC)
+                : LocalDateTime.now();
+        return new PendingLink(shortCode, uid, originalUrl, createdAt);
+    }
+
+    private FileChannel openSegment(long segment) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        // Make the new directory entry itself durable; not every platform supports this.
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Could not sync directory {}", directory, e);
+        }
+        return channel;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("links-%020d.log", segment));
+    }
+
+    private static List<Long> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.macode101.shortenerurl.writebehind;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.RedirectTarget;
+import com.macode101.shortenerurl.dto.ShortCodeOwner;
+import com.macode101.shortenerurl.entity.ShortenedUrl;
+import com.macode101.shortenerurl.exception.UrlShortenerException;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import com.macode101.shortenerurl.repository.UserRepository;
+import com.macode101.shortenerurl.service.ShortUrlBatchWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional write-behind path for link creation. A created link is acknowledged once it is
+ * fsync'd to a local {@link LinkAppendLog} and is served to redirects from memory until a
+ * background flush has inserted it into the database in batches. The log is replayed on
+ * startup; rows that were already inserted before a crash are skipped, so replay is
+ * idempotent. Only codes from the sequence generator are accepted, since a conflict
+ * discovered at flush time could no longer be reported to the client. Should one still
+ * happen, for example with codes imported out of band, the link is parked in the log's
+ * dead-letter file for an operator rather than dropped, as is a row that keeps failing on
+ * its own.
+ */
+@Component
+public class LinkWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinkWriteBehind.class);
+
+    private final ShortenedUrlRepository shortenedUrlRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationConfiguration.WriteBehind config;
+    private final LinkAppendLog log;
+    private final Map<String, PendingLink> pending = new ConcurrentHashMap<>();
+    private final Queue<QueuedLink> queue = new ConcurrentLinkedQueue<>();
+    private final List<QueuedLink> backlog = new ArrayList<>();
+    private final Counter flushed;
+    private final Counter failed;
+    private final Counter parkedConflicts;
+    private final Counter parkedFailures;
+    private final Object appendLock = new Object();
+
+    private long deletedThrough;
+
+    public LinkWriteBehind(
+            ShortenedUrlRepository shortenedUrlRepository,
+            UserRepository userRepository,
+            ApplicationConfiguration applicationConfiguration,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.shortenedUrlRepository = shortenedUrlRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = applicationConfiguration.getWriteBehind();
+        this.flushed = Counter.builder("links.write.behind.flushed")
+                .description("Write-behind links inserted into the database")
+                .register(meterRegistry);
+        this.failed = Counter.builder("links.write.behind.flush.failures")
+                .description("Write-behind flushes that failed and were retried on the next interval")
+                .register(meterRegistry);
+        this.parkedConflicts = Counter.builder("links.write.behind.parked")
+                .description("Write-behind links parked in the dead-letter file instead of being inserted")
+                .tag("reason", "conflict")
+                .register(meterRegistry);
+        this.parkedFailures = Counter.builder("links.write.behind.parked")
+                .description("Write-behind links parked in the dead-letter file instead of being inserted")
+                .tag("reason", "error")
+                .register(meterRegistry);
+        Gauge.builder("links.write.behind.pending", pending, Map::size)
+                .description("Links acknowledged but not yet inserted into the database")
+                .register(meterRegistry);
+
+        if (!config.isEnabled()) {
+            this.log = null;
+            return;
+        }
+        if (!"sequence".equals(applicationConfiguration.getShortCode().getGenerator())) {
+            throw new IllegalStateException("application.write-behind requires application.short-code.generator=sequence");
+        }
+        try {
+            this.log = LinkAppendLog.open(Path.of(config.getPath()));
+            for (LinkAppendLog.Replayed replayed : log.readSealed()) {
+                pending.put(replayed.link().shortCode(), replayed.link());
+                queue.add(new QueuedLink(replayed.segment(), replayed.link()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-behind log " + config.getPath(), e);
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Replaying {} write-behind links from {}", pending.size(), config.getPath());
+        }
+    }
+
+    public boolean isEnabled() {
+        return log != null;
+    }
+
+    public void append(String shortCode, String uid, String originalUrl) {
+        PendingLink link = new PendingLink(shortCode, uid, originalUrl, LocalDateTime.now());
+        pending.put(shortCode, link);
+        try {
+            long ticket;
+            // Held across write and enqueue so that a rotation never seals a record that is not yet queued.
+            synchronized (appendLock) {
+                ticket = log.write(link);
+                queue.add(new QueuedLink(log.activeSegment(), link));
+            }
+            log.sync(ticket);
+        } catch (IOException e) {
+            pending.remove(shortCode, link);
+            throw new UrlShortenerException("Failed to append link to write-behind log", e);
+        }
+    }
+
+    /**
+     * @return the target of a link that is acknowledged but not yet in the database, or {@code null}
+     */
+    public RedirectTarget pendingTarget(String shortCode) {
+        PendingLink link = pending.get(shortCode);
+        return link == null ? null : new RedirectTarget(link.originalUrl(), true);
+    }
+
+    @Scheduled(fixedDelayString = "${application.write-behind.flush-interval:PT1S}")
+    public synchronized void flush() {
+        if (!isEnabled()) {
+            return;
+        }
+        long sealed;
+        try {
+            synchronized (appendLock) {
+                sealed = log.rotate();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to rotate write-behind log; will retry", e);
+            return;
+        }
+        QueuedLink next;
+        while ((next = queue.peek()) != null && next.segment() <= sealed) {
+            backlog.add(queue.poll());
+        }
+
+        int batchSize = config.getBatchSize();
+        while (!backlog.isEmpty()) {
+            List<QueuedLink> batch = backlog.subList(0, Math.min(batchSize, backlog.size()));
+            boolean done;
+            try {
+                done = insert(batch);
+            } catch (DataAccessException | TransactionException e) {
+                logger.warn("Failed to flush {} write-behind links; retrying them one by one", batch.size(), e);
+                done = insertOneByOne(batch);
+            }
+            if (!done) {
+                failed.increment();
+                return;
+            }
+        }
+
+        if (sealed > deletedThrough) {
+            try {
+                log.deleteThrough(sealed);
+                deletedThrough = sealed;
+            } catch (IOException e) {
+                logger.warn("Failed to delete flushed write-behind segments", e);
+            }
+        }
+    }
+
+    /**
+     * Inserts {@code rows} in one transaction, parks conflicting links and removes them all from
+     * the backlog.
+     *
+     * @return {@code false} if a conflicting link could not be parked; the rows are then retried,
+     * which skips the ones now inserted
+     */
+    private boolean insert(List<QueuedLink> rows) {
+        List<PendingLink> conflicting = transactionTemplate.execute(status -> insertMissing(rows));
+        for (PendingLink link : conflicting) {
+            logger.error("Write-behind link {} for user {} conflicts with an existing row; parking it in the dead-letter file",
+                    link.shortCode(), link.uid());
+            if (!park(link)) {
+                return false;
+            }
+            parkedConflicts.increment();
+        }
+        flushed.increment(rows.size() - conflicting.size());
+        rows.forEach(queued -> pending.remove(queued.link().shortCode(), queued.link()));
+        rows.clear();
+        return true;
+    }
+
+    /**
+     * Retries a failed batch row by row so that one bad row cannot stall every link behind it.
+     * Rows that fail permanently on their own are parked; any other failure leaves the remaining
+     * rows for the next flush.
+     */
+    private boolean insertOneByOne(List<QueuedLink> batch) {
+        while (!batch.isEmpty()) {
+            List<QueuedLink> row = batch.subList(0, 1);
+            try {
+                if (!insert(row)) {
+                    return false;
+                }
+            } catch (DataAccessException | TransactionException e) {
+                if (!isPermanent(e)) {
+                    logger.warn("Failed to flush {} write-behind links; will retry", backlog.size(), e);
+                    return false;
+                }
+                PendingLink link = row.get(0).link();
+                logger.error("Write-behind link {} for user {} cannot be inserted; parking it in the dead-letter file",
+                        link.shortCode(), link.uid(), e);
+                if (!park(link)) {
+                    return false;
+                }
+                parkedFailures.increment();
+                pending.remove(link.shortCode(), link);
+                row.clear();
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPermanent(Exception e) {
+        // Lost connections are non-transient too, but say nothing about the row itself.
+        return e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    /**
+     * Inserts the links of {@code batch} that are not in the database yet.
+     *
+     * @return links whose short code is already taken by a different row
+     */
+    private List<PendingLink> insertMissing(List<QueuedLink> batch) {
+        Map<String, ShortCodeOwner> existing = new HashMap<>();
+        List<String> shortCodes = batch.stream().map(queued -> queued.link().shortCode()).toList();
+        shortenedUrlRepository.findShortCodeOwners(shortCodes).forEach(owner -> existing.put(owner.shortCode(), owner));
+        List<ShortenedUrl> missing = new ArrayList<>(batch.size());
+        List<PendingLink> conflicting = new ArrayList<>();
+        Set<String> uids = new TreeSet<>();
+        for (QueuedLink queued : batch) {
+            PendingLink link = queued.link();
+            ShortCodeOwner owner = existing.get(link.shortCode());
+            if (owner == null) {
+                ShortenedUrl shortenedUrl = ShortUrlBatchWriter.newShortenedUrl(link.originalUrl(), link.uid(), link.shortCode());
+                // Keep the acknowledgement time so listing order and stats windows survive a late flush or replay.
+                shortenedUrl.setCreatedAt(link.createdAt());
+                missing.add(shortenedUrl);
+                uids.add(link.uid());
+                existing.put(link.shortCode(), new ShortCodeOwner(link.shortCode(), link.uid(), link.originalUrl()));
+            } else if (!owner.uid().equals(link.uid()) || !owner.originalUrl().equals(link.originalUrl())) {
+                conflicting.add(link);
+            }
+            // Otherwise the row was inserted before a crash and is found here again on replay.
+        }
+        shortenedUrlRepository.saveAllAndFlush(missing);
+        // Links only appear in listings once inserted, so versions are bumped here rather than on append.
+        uids.forEach(userRepository::incrementLinksVersion);
+        return conflicting;
+    }
+
+    private boolean park(PendingLink link) {
+        try {
+            log.park(link);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to park write-behind link {}; will retry", link.shortCode(), e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!isEnabled()) {
+            return;
+        }
+        flush();
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close write-behind log", e);
+        }
+    }
+
+    private record QueuedLink(long segment, PendingLink link) {}
+}
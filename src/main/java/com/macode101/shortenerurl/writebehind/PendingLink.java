@@ -0,0 +1,5 @@
+package com.macode101.shortenerurl.writebehind;
+
+import java.time.LocalDateTime;
+
+record PendingLink(String shortCode, String uid, String originalUrl, LocalDateTime createdAt) {}
@@ -0,0 +1,2 @@
+-- Hibernate reserves blocks of 50 IDs per nextval (pooled optimizer) to batch inserts.
+ALTER SEQUENCE shortened_urls_id_seq INCREMENT BY 50;
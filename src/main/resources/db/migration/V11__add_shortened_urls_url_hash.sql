@@ -0,0 +1,7 @@
+ALTER TABLE shortened_urls ADD COLUMN url_hash BIGINT;
+
+-- Same value as Hashing.sha256Prefix64: the first 8 bytes of SHA-256(original_url) as a signed bigint.
+UPDATE shortened_urls
+SET url_hash = ('x' || left(encode(sha256(convert_to(original_url, 'UTF8')), 'hex'), 16))::bit(64)::bigint;
+
+CREATE INDEX idx_shortened_urls_uid_url_hash ON shortened_urls (uid, url_hash);
@@ -0,0 +1,5 @@
+-- Serves keyset pagination of a user's links ordered by (created_at DESC, id DESC).
+CREATE INDEX idx_shortened_urls_uid_created_at_id ON shortened_urls (uid, created_at DESC, id DESC);
+
+-- Superseded by the index above, whose leading column is uid.
+DROP INDEX IF EXISTS idx_shortened_urls_user_id;
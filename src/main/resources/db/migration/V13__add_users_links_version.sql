@@ -0,0 +1,2 @@
+-- Bumped whenever a user's link list changes; serves as the ETag of GET /api/urls.
+ALTER TABLE users ADD COLUMN links_version BIGINT NOT NULL DEFAULT 0;
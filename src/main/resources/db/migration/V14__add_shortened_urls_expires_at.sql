@@ -0,0 +1,4 @@
+ALTER TABLE shortened_urls ADD COLUMN expires_at TIMESTAMP;
+
+-- Serves the expired link reaper; rows leave the index once deactivated, so it only holds pending expirations.
+CREATE INDEX idx_shortened_urls_expires_at ON shortened_urls (expires_at) WHERE active = true AND expires_at IS NOT NULL;
@@ -0,0 +1,12 @@
+-- V3 added the covering index next to the UNIQUE constraint from V2, leaving two unique b-trees
+-- on short_code to maintain on every insert. Keep only the covering index and attach it as the
+-- constraint (it is renamed to shortened_urls_short_code_key), so uniqueness stays declared.
+ALTER TABLE shortened_urls DROP CONSTRAINT shortened_urls_short_code_key;
+ALTER TABLE shortened_urls ADD CONSTRAINT shortened_urls_short_code_key UNIQUE USING INDEX idx_shortened_urls_redirect;
+
+-- The covering index carries original_url, and a b-tree tuple must fit in about 2.7 KB (a third of
+-- an 8 KB page). VARCHAR(2048) counts characters, so a multibyte URL could still exceed that and
+-- fail the insert; cap it at 2048 bytes, as ShortenUrlRequest does. NOT VALID leaves existing rows,
+-- which all fit since they were indexed, unchecked.
+ALTER TABLE shortened_urls ADD CONSTRAINT shortened_urls_original_url_bytes
+    CHECK (octet_length(original_url) <= 2048) NOT VALID;
@@ -0,0 +1,6 @@
+-- Covering index for redirect resolution: lookups by short_code can be answered
+-- with an index-only scan without visiting the heap.
+CREATE UNIQUE INDEX idx_shortened_urls_redirect ON shortened_urls(short_code) INCLUDE (original_url, active);
+
+-- Superseded by the covering index above.
+DROP INDEX IF EXISTS idx_short_code;
@@ -0,0 +1,8 @@
+ALTER TABLE shortened_urls ADD COLUMN updated_at TIMESTAMP;
+
+UPDATE shortened_urls SET updated_at = created_at;
+
+ALTER TABLE shortened_urls ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE shortened_urls ALTER COLUMN updated_at SET DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX idx_shortened_urls_updated_at ON shortened_urls(updated_at);
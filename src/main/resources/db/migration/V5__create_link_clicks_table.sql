@@ -0,0 +1,10 @@
+CREATE TABLE link_clicks (
+    id BIGSERIAL PRIMARY KEY,
+    short_code VARCHAR(8) NOT NULL,
+    clicked_at TIMESTAMP NOT NULL,
+    referrer VARCHAR(1024),
+    user_agent VARCHAR(512),
+    ip_hash VARCHAR(64)
+);
+
+CREATE INDEX idx_link_clicks_code_time ON link_clicks(short_code, clicked_at);
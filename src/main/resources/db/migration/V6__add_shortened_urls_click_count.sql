@@ -0,0 +1 @@
+ALTER TABLE shortened_urls ADD COLUMN click_count BIGINT NOT NULL DEFAULT 0;
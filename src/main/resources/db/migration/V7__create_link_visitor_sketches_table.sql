@@ -0,0 +1,8 @@
+CREATE TABLE link_visitor_sketches (
+    id BIGSERIAL PRIMARY KEY,
+    short_code VARCHAR(8) NOT NULL,
+    bucket_date DATE NOT NULL,
+    registers BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_link_visitor_sketches_code_day UNIQUE (short_code, bucket_date)
+);
@@ -0,0 +1,11 @@
+CREATE TABLE link_click_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    short_code VARCHAR(8) NOT NULL,
+    granularity VARCHAR(6) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    clicks BIGINT NOT NULL,
+    CONSTRAINT uk_link_click_rollups_bucket UNIQUE (short_code, granularity, bucket_start)
+);
+
+-- Drives compaction, which scans one granularity for buckets older than its retention.
+CREATE INDEX idx_link_click_rollups_compaction ON link_click_rollups(granularity, bucket_start);
@@ -0,0 +1,2 @@
+-- Each value leases a block of application.short-code.block-size IDs for the sequence generator.
+CREATE SEQUENCE short_code_seq START WITH 1 INCREMENT BY 1;
@@ -0,0 +1,96 @@
+package com.macode101.shortenerurl.analytics;
+
+import com.macode101.shortenerurl.dto.ClickBucket;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ClickRollupsIntegrationTest {
+
+    @Autowired
+    private ClickRollups clickRollups;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private void record(ClickEvent... events) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> clickRollups.record(List.of(events)));
+    }
+
+    private static ClickEvent click(String shortCode, LocalDateTime at) {
+        return new ClickEvent(shortCode, at, null, null, null);
+    }
+
+    private long rows(String shortCode, String granularity) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM link_click_rollups WHERE short_code = ? AND granularity = ?",
+                Long.class, shortCode, granularity);
+    }
+
+    @Test
+    void shouldAggregateClicksIntoMinuteBuckets() {
+        LocalDateTime minute = LocalDateTime.now().withSecond(0).withNano(0);
+        record(click("rollup01", minute.plusSeconds(5)), click("rollup01", minute.plusSeconds(30)));
+        record(click("rollup01", minute.plusSeconds(59)), click("rollup01", minute.plusMinutes(1)));
+
+        List<ClickBucket> series = clickRollups.query("rollup01", minute, minute.plusMinutes(2), RollupGranularity.MINUTE);
+
+        assertThat(series).containsExactly(
+                new ClickBucket(minute, 3L),
+                new ClickBucket(minute.plusMinutes(1), 1L));
+    }
+
+    @Test
+    void shouldRebucketToCoarserGranularity() {
+        LocalDateTime hour = LocalDateTime.now().withMinute(0).withSecond(0).withNano(0);
+        record(click("rollup02", hour.plusMinutes(1)), click("rollup02", hour.plusMinutes(40)));
+
+        List<ClickBucket> series = clickRollups.query("rollup02", hour, hour.plusHours(1), RollupGranularity.HOUR);
+
+        assertThat(series).containsExactly(new ClickBucket(hour, 2L));
+    }
+
+    @Test
+    void compactionShouldFoldExpiredBucketsWithoutLosingClicks() {
+        LocalDateTime old = LocalDateTime.now().minusDays(10).withHour(3).withMinute(0).withSecond(0).withNano(0);
+        record(click("rollup03", old.plusMinutes(1)), click("rollup03", old.plusMinutes(2)),
+                click("rollup03", old.plusHours(2)));
+        jdbcTemplate.update(
+                "INSERT INTO link_click_rollups (short_code, granularity, bucket_start, clicks) VALUES (?, ?, ?, ?)",
+                "rollup03", "DAY", Timestamp.valueOf(old.toLocalDate().atStartOfDay()), 5L);
+
+        clickRollups.compact();
+
+        assertThat(rows("rollup03", "MINUTE")).isZero();
+        assertThat(rows("rollup03", "HOUR")).isZero();
+        assertThat(rows("rollup03", "DAY")).isEqualTo(1);
+        LocalDateTime day = old.toLocalDate().atStartOfDay();
+        assertThat(clickRollups.query("rollup03", day, day.plusDays(1), RollupGranularity.MINUTE))
+                .containsExactly(new ClickBucket(day, 8L));
+    }
+
+    @Test
+    void compactionShouldKeepRecentMinuteBuckets() {
+        LocalDateTime now = LocalDateTime.now();
+        record(click("rollup04", now));
+
+        clickRollups.compact();
+
+        assertThat(rows("rollup04", "MINUTE")).isEqualTo(1);
+    }
+}
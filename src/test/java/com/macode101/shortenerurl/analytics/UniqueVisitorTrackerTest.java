@@ -0,0 +1,56 @@
+package com.macode101.shortenerurl.analytics;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.repository.LinkVisitorSketchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UniqueVisitorTrackerTest {
+
+    private LinkVisitorSketchRepository sketchRepository;
+    private PlatformTransactionManager transactionManager;
+    private ApplicationConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        sketchRepository = mock(LinkVisitorSketchRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        configuration = new ApplicationConfiguration();
+    }
+
+    @Test
+    void shouldRecordNothingWhenClicksAreDisabled() {
+        configuration.getClicks().setEnabled(false);
+        configuration.getClicks().setIpHashSalt("");
+        UniqueVisitorTracker tracker = tracker();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.7");
+
+        tracker.record("abc123", request);
+        tracker.flush();
+
+        verifyNoInteractions(sketchRepository, transactionManager);
+        LocalDate today = LocalDate.now();
+        assertEquals(0, tracker.visitors("abc123", today, today).estimate());
+    }
+
+    @Test
+    void shouldRefuseToStartWithoutSaltWhenClicksAreEnabled() {
+        configuration.getClicks().setEnabled(true);
+        configuration.getClicks().setIpHashSalt(" ");
+
+        assertThrows(IllegalStateException.class, this::tracker);
+    }
+
+    private UniqueVisitorTracker tracker() {
+        return new UniqueVisitorTracker(sketchRepository, transactionManager, configuration, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,99 @@
+package com.macode101.shortenerurl.cache;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.HotKeyResponse;
+import com.macode101.shortenerurl.dto.RedirectTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    private RedirectCache redirectCache;
+    private HotKeyTracker hotKeyTracker;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationConfiguration configuration = new ApplicationConfiguration();
+        configuration.getRedirect().getHotKeys().setTopK(3);
+        configuration.getRedirect().getHotKeys().setMinHits(5);
+        configuration.getRedirect().getCache().setMaximumSize(1_000);
+        redirectCache = new RedirectCache(configuration, new SimpleMeterRegistry());
+        hotKeyTracker = new HotKeyTracker(configuration, redirectCache);
+    }
+
+    @Test
+    void topKeysShouldKeepOnlyTheMostFrequentCodes() {
+        record("viral", 100);
+        record("popular", 50);
+        record("warm", 20);
+        record("lukewarm", 10);
+        record("cold", 2);
+
+        List<String> codes = hotKeyTracker.topKeys().stream().map(HotKeyResponse::shortCode).toList();
+
+        assertEquals(List.of("viral", "popular", "warm"), codes);
+    }
+
+    @Test
+    void codesBelowMinHitsShouldNotBeTracked() {
+        record("cold", 4);
+
+        assertTrue(hotKeyTracker.topKeys().isEmpty());
+    }
+
+    @Test
+    void decayShouldDropCodesThatCooledDown() {
+        record("viral", 100);
+        record("warm", 8);
+
+        hotKeyTracker.decay();
+
+        List<HotKeyResponse> topKeys = hotKeyTracker.topKeys();
+        assertEquals(1, topKeys.size());
+        assertEquals("viral", topKeys.get(0).shortCode());
+        assertEquals(50, topKeys.get(0).estimatedHits());
+    }
+
+    @Test
+    void pinnedCodesShouldBeServedWithoutLoading() {
+        AtomicInteger loads = new AtomicInteger();
+        redirectCache.get("viral", code -> {
+            loads.incrementAndGet();
+            return new RedirectTarget("https://example.com", true);
+        });
+        record("viral", 10);
+
+        hotKeyTracker.pinHotKeys();
+
+        assertTrue(redirectCache.isPinned("viral"));
+        assertTrue(hotKeyTracker.topKeys().get(0).pinned());
+        redirectCache.get("viral", code -> {
+            loads.incrementAndGet();
+            return new RedirectTarget("https://example.com", true);
+        });
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateShouldUnpinCode() {
+        redirectCache.get("viral", code -> new RedirectTarget("https://example.com", true));
+        record("viral", 10);
+        hotKeyTracker.pinHotKeys();
+
+        redirectCache.invalidate("viral");
+
+        assertFalse(redirectCache.isPinned("viral"));
+    }
+
+    private void record(String shortCode, int times) {
+        for (int i = 0; i < times; i++) {
+            hotKeyTracker.record(shortCode);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.macode101.shortenerurl.cache;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(new ApplicationConfiguration(), new SimpleMeterRegistry());
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void retryWithSameKeyShouldReturnFirstResultWithoutExecutingAgain() {
+        String first = store.execute("user", "op", "key", "request", () -> "result-" + executions.incrementAndGet());
+        String retry = store.execute("user", "op", "key", "request", () -> "result-" + executions.incrementAndGet());
+
+        assertEquals("result-1", first);
+        assertEquals("result-1", retry);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keysShouldBeScopedPerUserAndOperation() {
+        store.execute("user", "op", "key", "request", executions::incrementAndGet);
+        store.execute("other", "op", "key", "request", executions::incrementAndGet);
+        store.execute("user", "other-op", "key", "request", executions::incrementAndGet);
+
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void reusingKeyForDifferentRequestShouldBeRejected() {
+        store.execute("user", "op", "key", "request", executions::incrementAndGet);
+
+        assertThrows(ValidationException.class,
+                () -> store.execute("user", "op", "key", "another request", executions::incrementAndGet));
+    }
+
+    @Test
+    void failedExecutionShouldNotBeRemembered() {
+        assertThrows(IllegalStateException.class, () -> store.execute("user", "op", "key", "request", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, store.execute("user", "op", "key", "request", executions::incrementAndGet));
+    }
+
+    @Test
+    void concurrentDuplicateShouldWaitForInFlightResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> store.execute("user", "op", "key", "request", () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "result-" + executions.incrementAndGet();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> duplicate = CompletableFuture.supplyAsync(
+                () -> store.execute("user", "op", "key", "request", () -> "result-" + executions.incrementAndGet()));
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone());
+
+        release.countDown();
+        assertEquals("result-1", first.get(5, TimeUnit.SECONDS));
+        assertEquals("result-1", duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void blankOrOversizedKeysShouldBeRejected() {
+        assertThrows(ValidationException.class, () -> store.execute("user", "op", " ", "request", executions::incrementAndGet));
+        assertThrows(ValidationException.class,
+                () -> store.execute("user", "op", "k".repeat(256), "request", executions::incrementAndGet));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.macode101.shortenerurl.cache;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.RedirectTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectCacheTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedirectCache redirectCache = new RedirectCache(new ApplicationConfiguration(), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("redirect.loads.coalesced").functionCounter().count();
+    }
+
+    @Test
+    void localLookupsShouldRunOnEveryCallerAndNotCountAsCoalesced() throws Exception {
+        CountDownLatch bothLooking = new CountDownLatch(2);
+        AtomicInteger databaseLoads = new AtomicInteger();
+
+        List<Future<RedirectTarget>> callers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            callers.add(executor.submit(() -> redirectCache.get("abc", code -> {
+                bothLooking.countDown();
+                // Only returns once the other caller is looking too, so neither can be waiting on the other.
+                await(bothLooking);
+                return new RedirectTarget("https://example.com", true);
+            }, code -> {
+                databaseLoads.incrementAndGet();
+                return new RedirectTarget("unexpected", true);
+            })));
+        }
+
+        for (Future<RedirectTarget> caller : callers) {
+            assertEquals("https://example.com", caller.get(5, TimeUnit.SECONDS).originalUrl());
+        }
+        assertEquals(0, databaseLoads.get());
+        assertEquals(0.0, coalesced());
+    }
+
+    @Test
+    void concurrentDatabaseLoadsShouldBeCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger databaseLoads = new AtomicInteger();
+
+        List<Future<RedirectTarget>> callers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            callers.add(executor.submit(() -> redirectCache.get("abc", code -> null, code -> {
+                databaseLoads.incrementAndGet();
+                await(release);
+                return new RedirectTarget("https://example.com", true);
+            })));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<RedirectTarget> caller : callers) {
+            assertEquals("https://example.com", caller.get(5, TimeUnit.SECONDS).originalUrl());
+        }
+        assertEquals(1, databaseLoads.get());
+        assertEquals(2.0, coalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
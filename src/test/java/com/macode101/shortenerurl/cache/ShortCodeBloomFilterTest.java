@@ -0,0 +1,66 @@
+package com.macode101.shortenerurl.cache;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ShortCodeBloomFilterTest {
+
+    private final ShortenedUrlRepository repository = mock(ShortenedUrlRepository.class);
+    private final ApplicationConfiguration config = new ApplicationConfiguration();
+
+    @BeforeEach
+    void setUp() {
+        config.getRedirect().getBloomFilter().setExpectedInsertions(1_000);
+        when(repository.count()).thenReturn(1L);
+        when(repository.streamAllShortCodes()).thenReturn(Stream.of("known"));
+    }
+
+    private ShortCodeBloomFilter newFilter() {
+        ShortCodeBloomFilter filter = new ShortCodeBloomFilter(repository, config, new SimpleMeterRegistry());
+        filter.rebuild();
+        return filter;
+    }
+
+    @Test
+    void missShouldRefreshEarlyAndFindCodesCreatedOnOtherNodes() {
+        config.getRedirect().getBloomFilter().setRecheckInterval(Duration.ZERO);
+        ShortCodeBloomFilter filter = newFilter();
+        when(repository.findShortCodesCreatedAfter(any(LocalDateTime.class))).thenReturn(List.of("elsewhere"));
+
+        assertTrue(filter.mightContain("known"));
+        assertTrue(filter.mightContain("elsewhere"));
+        verify(repository).findShortCodesCreatedAfter(any(LocalDateTime.class));
+    }
+
+    @Test
+    void missesShouldRefreshAtMostOncePerRecheckInterval() {
+        config.getRedirect().getBloomFilter().setRecheckInterval(Duration.ofHours(1));
+        ShortCodeBloomFilter filter = newFilter();
+
+        assertFalse(filter.mightContain("missing-1"));
+        assertFalse(filter.mightContain("missing-2"));
+        verify(repository, never()).findShortCodesCreatedAfter(any(LocalDateTime.class));
+    }
+
+    @Test
+    void failedEarlyRefreshShouldAnswerTheMissFromTheFilter() {
+        config.getRedirect().getBloomFilter().setRecheckInterval(Duration.ZERO);
+        ShortCodeBloomFilter filter = newFilter();
+        when(repository.findShortCodesCreatedAfter(any(LocalDateTime.class))).thenThrow(new QueryTimeoutException("down"));
+
+        assertFalse(filter.mightContain("missing"));
+    }
+}
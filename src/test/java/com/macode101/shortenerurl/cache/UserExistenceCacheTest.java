@@ -0,0 +1,53 @@
+package com.macode101.shortenerurl.cache;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserExistenceCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserExistenceCache cache =
+            new UserExistenceCache(userRepository, new ApplicationConfiguration(), new SimpleMeterRegistry());
+
+    @Test
+    void existsShouldQueryOnceAndServeRepeatedLookupsFromMemory() {
+        when(userRepository.existsByUid("uid")).thenReturn(true);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(cache.exists("uid"));
+        }
+
+        verify(userRepository, times(1)).existsByUid("uid");
+    }
+
+    @Test
+    void existsShouldNotCacheUnknownUsers() {
+        when(userRepository.existsByUid("uid")).thenReturn(false, true);
+
+        assertFalse(cache.exists("uid"));
+        assertTrue(cache.exists("uid"));
+        verify(userRepository, times(2)).existsByUid("uid");
+    }
+
+    @Test
+    void markedUsersShouldNeverBeQueried() {
+        cache.markExisting("uid");
+
+        assertTrue(cache.exists("uid"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void invalidateShouldForceTheNextLookupToQuery() {
+        cache.markExisting("uid");
+        cache.invalidate("uid");
+        when(userRepository.existsByUid("uid")).thenReturn(false);
+
+        assertFalse(cache.exists("uid"));
+    }
+}
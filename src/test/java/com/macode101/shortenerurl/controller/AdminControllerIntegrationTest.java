@@ -0,0 +1,93 @@
+package com.macode101.shortenerurl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.macode101.shortenerurl.dto.AuthResponse;
+import com.macode101.shortenerurl.dto.RegisterRequest;
+import com.macode101.shortenerurl.dto.ShortenUrlRequest;
+import com.macode101.shortenerurl.dto.ShortenUrlResponse;
+import com.macode101.shortenerurl.util.JwtUtil;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.macode101.shortenerurl.security.AuthorizeConstants.ADMIN;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String registerAndGetToken() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest("user-" + UUID.randomUUID() + "@macode101.com", "password123");
+        MvcResult result = mockMvc.perform(post("/api/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), AuthResponse.class).accessToken();
+    }
+
+    private String adminToken() {
+        return jwtUtil.generateToken(UUID.randomUUID().toString(), "admin@macode101.com", List.of(ADMIN));
+    }
+
+    @Nested
+    class HotKeys {
+
+        @Test
+        void shouldListFrequentlyRedirectedCodesForAdmin() throws Exception {
+            String userToken = registerAndGetToken();
+            MvcResult result = mockMvc.perform(post("/api/shorten")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ShortenUrlRequest("https://www.viral.com"))))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            String shortCode = objectMapper.readValue(result.getResponse().getContentAsString(), ShortenUrlResponse.class).shortCode();
+
+            for (int i = 0; i < 20; i++) {
+                mockMvc.perform(get("/r/" + shortCode)).andExpect(status().isFound());
+            }
+
+            mockMvc.perform(get("/api/admin/hot-keys")
+                            .header("Authorization", "Bearer " + adminToken()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].shortCode", hasItem(shortCode)));
+        }
+
+        @Test
+        void shouldRejectNonAdminUser() throws Exception {
+            mockMvc.perform(get("/api/admin/hot-keys")
+                            .header("Authorization", "Bearer " + registerAndGetToken()))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void shouldRejectMissingToken() throws Exception {
+            mockMvc.perform(get("/api/admin/hot-keys"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+}
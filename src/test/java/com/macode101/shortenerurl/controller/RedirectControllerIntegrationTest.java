@@ -1,21 +1,28 @@
 package com.macode101.shortenerurl.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.macode101.shortenerurl.analytics.ClickCounter;
+import com.macode101.shortenerurl.analytics.ClickEventWriter;
 import com.macode101.shortenerurl.dto.AuthResponse;
 import com.macode101.shortenerurl.dto.RegisterRequest;
 import com.macode101.shortenerurl.dto.ShortenUrlRequest;
 import com.macode101.shortenerurl.dto.ShortenUrlResponse;
+import com.macode101.shortenerurl.service.ExpiredLinkReaper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,6 +40,18 @@ class RedirectControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ClickEventWriter clickEventWriter;
+
+    @Autowired
+    private ClickCounter clickCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExpiredLinkReaper expiredLinkReaper;
+
     private String authToken;
     private String shortCode;
     private final String originalUrl = "https://www.macode101.com";
@@ -217,6 +236,52 @@ class RedirectControllerIntegrationTest {
         }
     }
 
+    @Nested
+    class LinkExpiration {
+
+        @Test
+        void shouldRedirectUntilExpiry() throws Exception {
+            MvcResult result = mockMvc.perform(post("/api/shorten")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new ShortenUrlRequest(originalUrl, LocalDateTime.now().plusDays(1)))))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            ShortenUrlResponse created = objectMapper.readValue(result.getResponse().getContentAsString(), ShortenUrlResponse.class);
+
+            mockMvc.perform(get("/r/" + created.shortCode()))
+                    .andExpect(status().isFound())
+                    .andExpect(header().string("Location", originalUrl));
+        }
+
+        @Test
+        void shouldReturnGoneForExpiredUrlAndDeactivateItWhenReaped() throws Exception {
+            jdbcTemplate.update("UPDATE shortened_urls SET expires_at = ? WHERE short_code = ?",
+                    Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), shortCode);
+
+            mockMvc.perform(get("/r/" + shortCode))
+                    .andExpect(status().isGone());
+
+            expiredLinkReaper.reap();
+
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].active").value(false));
+        }
+
+        @Test
+        void shouldRejectExpiryInThePast() throws Exception {
+            mockMvc.perform(post("/api/shorten")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new ShortenUrlRequest(originalUrl, LocalDateTime.now().minusDays(1)))))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     class IntegrationScenarios {
 
@@ -268,6 +333,58 @@ class RedirectControllerIntegrationTest {
             assertThat(response1.shortCode()).isNotEqualTo(response2.shortCode());
         }
 
+        @Test
+        void shouldRecordClickEventsForRedirects() throws Exception {
+            for (int i = 0; i < 3; i++) {
+                mockMvc.perform(get("/r/" + shortCode)
+                                .header(HttpHeaders.REFERER, "https://news.example.com")
+                                .header(HttpHeaders.USER_AGENT, "integration-test"))
+                        .andExpect(status().isFound());
+            }
+
+            clickEventWriter.flush();
+
+            Integer clicks = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM link_clicks WHERE short_code = ?", Integer.class, shortCode);
+            assertThat(clicks).isEqualTo(3);
+            String ipHash = jdbcTemplate.queryForObject(
+                    "SELECT ip_hash FROM link_clicks WHERE short_code = ? LIMIT 1", String.class, shortCode);
+            assertThat(ipHash).hasSize(64).doesNotContain("127.0.0.1");
+        }
+
+        @Test
+        void shouldCountClicksBeforeAndAfterFlush() throws Exception {
+            mockMvc.perform(get("/r/" + shortCode)).andExpect(status().isFound());
+            mockMvc.perform(get("/r/" + shortCode)).andExpect(status().isFound());
+
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].clickCount").value(0));
+
+            clickCounter.flush();
+
+            Long persisted = jdbcTemplate.queryForObject(
+                    "SELECT click_count FROM shortened_urls WHERE short_code = ?", Long.class, shortCode);
+            assertThat(persisted).isEqualTo(2L);
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].clickCount").value(2));
+        }
+
+        @Test
+        void shouldNotRecordClickEventsForFailedRedirects() throws Exception {
+            mockMvc.perform(get("/r/abcd1234"))
+                    .andExpect(status().isNotFound());
+
+            clickEventWriter.flush();
+
+            Integer clicks = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM link_clicks WHERE short_code = ?", Integer.class, "abcd1234");
+            assertThat(clicks).isZero();
+        }
+
         @Test
         void shouldHandleHighVolumeOfRedirects() throws Exception {
             int redirectCount = 100;
@@ -0,0 +1,139 @@
+package com.macode101.shortenerurl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.macode101.shortenerurl.dto.AuthResponse;
+import com.macode101.shortenerurl.dto.RegisterRequest;
+import com.macode101.shortenerurl.dto.ShortenUrlRequest;
+import com.macode101.shortenerurl.dto.ShortenUrlResponse;
+import com.macode101.shortenerurl.util.Base62;
+import com.macode101.shortenerurl.util.ShortCodeGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Hammers {@code POST /api/shorten} from many threads with a generator that keeps
+ * handing out codes that are already taken, so the conflict-and-retry path is exercised
+ * under real contention.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ShortenConcurrencyIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortenConcurrencyIntegrationTest.class);
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS_PER_THREAD = 50;
+
+    @TestConfiguration
+    static class CollidingGeneratorConfiguration {
+
+        @Bean
+        @Primary
+        ShortCodeGenerator collidingShortCodeGenerator() {
+            AtomicLong counter = new AtomicLong(1_000_000);
+            // Every tenth code repeats one handed out five calls earlier.
+            return () -> {
+                long next = counter.incrementAndGet();
+                return Base62.encode(next % 10 == 0 ? next - 5 : next, 7);
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private String registerAndGetToken() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest("user-" + UUID.randomUUID() + "@macode101.com", "password123");
+        mockMvc.perform(post("/api/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)));
+
+        MvcResult loginResult = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andReturn();
+        return objectMapper.readValue(loginResult.getResponse().getContentAsString(), AuthResponse.class).accessToken();
+    }
+
+    @Test
+    void concurrentCreatesShouldAllSucceedWithDistinctCodes() throws Exception {
+        String authToken = registerAndGetToken();
+        String body = objectMapper.writeValueAsString(new ShortenUrlRequest("https://www.macode101.com/stress"));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<MvcResult>>> workers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                List<MvcResult> results = new ArrayList<>();
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    results.add(mockMvc.perform(post("/api/shorten")
+                                    .header("Authorization", "Bearer " + authToken)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn());
+                }
+                return results;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        Set<String> shortCodes = new HashSet<>();
+        int failures = 0;
+        for (Future<List<MvcResult>> worker : workers) {
+            for (MvcResult result : worker.get()) {
+                if (result.getResponse().getStatus() != 201) {
+                    failures++;
+                    continue;
+                }
+                shortCodes.add(objectMapper.readValue(
+                        result.getResponse().getContentAsString(), ShortenUrlResponse.class).shortCode());
+            }
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        int total = THREADS * REQUESTS_PER_THREAD;
+        logger.info("Created {} short URLs from {} threads in {} s ({} req/s)",
+                total, THREADS, String.format("%.2f", seconds), String.format("%.0f", total / seconds));
+
+        assertThat(failures).isZero();
+        assertThat(shortCodes).hasSize(total);
+    }
+}
@@ -1,7 +1,15 @@
 package com.macode101.shortenerurl.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.macode101.shortenerurl.analytics.ClickCounter;
+import com.macode101.shortenerurl.analytics.ClickEventWriter;
+import com.macode101.shortenerurl.analytics.UniqueVisitorTracker;
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
 import com.macode101.shortenerurl.dto.AuthResponse;
+import com.macode101.shortenerurl.dto.BulkShortenItemResponse;
+import com.macode101.shortenerurl.dto.BulkShortenRequest;
+import com.macode101.shortenerurl.dto.ImportLineResult;
 import com.macode101.shortenerurl.dto.RegisterRequest;
 import com.macode101.shortenerurl.dto.ShortenUrlRequest;
 import com.macode101.shortenerurl.dto.ShortenUrlResponse;
@@ -17,7 +25,11 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -37,6 +49,18 @@ class UrlControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UniqueVisitorTracker uniqueVisitorTracker;
+
+    @Autowired
+    private ClickEventWriter clickEventWriter;
+
+    @Autowired
+    private ClickCounter clickCounter;
+
+    @Autowired
+    private ApplicationConfiguration applicationConfiguration;
+
     private String userEmail;
     private String authToken;
 
@@ -200,6 +224,17 @@ class UrlControllerIntegrationTest {
                     .andExpect(status().isBadRequest());
         }
 
+        @Test
+        void shouldRejectUrlAboveTheByteLimitEvenWithinTheCharacterLimit() throws Exception {
+            ShortenUrlRequest request = new ShortenUrlRequest("https://example.com/" + "\u00e9".repeat(1_500));
+
+            mockMvc.perform(post("/api/shorten")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+        }
+
         @Test
         void shouldRejectUrlWithoutProtocol() throws Exception {
             ShortenUrlRequest request = new ShortenUrlRequest("www.macode101.com");
@@ -331,6 +366,65 @@ class UrlControllerIntegrationTest {
                     .andExpect(jsonPath("$[2].originalUrl").value("https://www.first.com"));
         }
 
+        @Test
+        void shouldPageThroughUrlsWithNextCursor() throws Exception {
+            for (int i = 1; i <= 5; i++) {
+                createShortUrl("https://www.page-" + i + ".com");
+            }
+
+            List<String> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                var request = get("/api/urls")
+                        .header("Authorization", "Bearer " + authToken)
+                        .param("limit", "2");
+                if (cursor != null) {
+                    request.param("cursor", cursor);
+                }
+                MvcResult result = mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn();
+                List<Map<String, Object>> page = objectMapper.readValue(
+                        result.getResponse().getContentAsString(), new TypeReference<>() {});
+                page.forEach(url -> seen.add((String) url.get("originalUrl")));
+                cursor = result.getResponse().getHeader("X-Next-Cursor");
+                pages++;
+            } while (cursor != null);
+
+            assertThat(pages).isEqualTo(3);
+            assertThat(seen).containsExactly(
+                    "https://www.page-5.com", "https://www.page-4.com", "https://www.page-3.com",
+                    "https://www.page-2.com", "https://www.page-1.com");
+        }
+
+        @Test
+        void shouldPageByDefaultWithoutCursorOrLimit() throws Exception {
+            int defaultPageSize = applicationConfiguration.getListing().getDefaultPageSize();
+            applicationConfiguration.getListing().setDefaultPageSize(2);
+            try {
+                for (int i = 1; i <= 3; i++) {
+                    createShortUrl("https://www.all-" + i + ".com");
+                }
+
+                mockMvc.perform(get("/api/urls")
+                                .header("Authorization", "Bearer " + authToken))
+                        .andExpect(status().isOk())
+                        .andExpect(header().exists("X-Next-Cursor"))
+                        .andExpect(jsonPath("$.length()").value(2));
+            } finally {
+                applicationConfiguration.getListing().setDefaultPageSize(defaultPageSize);
+            }
+        }
+
+        @Test
+        void shouldRejectLimitAboveMaximumPageSize() throws Exception {
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken)
+                            .param("limit", "1001"))
+                    .andExpect(status().isBadRequest());
+        }
+
         @Test
         void shouldIncludeBothActiveAndInactiveUrls() throws Exception {
             createShortUrl("https://www.active.com");
@@ -349,6 +443,79 @@ class UrlControllerIntegrationTest {
         }
     }
 
+    @Nested
+    class ConditionalListUserUrls {
+
+        private String listETag() throws Exception {
+            return mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", startsWith("W/\"")))
+                    .andReturn().getResponse().getHeader("ETag");
+        }
+
+        private void expectModified(String etag) throws Exception {
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken)
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", not(etag)));
+        }
+
+        @Test
+        void shouldAnswerMatchingIfNoneMatchWithNotModified() throws Exception {
+            createShortUrl("https://www.etag.com");
+            String etag = listETag();
+
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken)
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        void shouldChangeETagWhenUrlIsCreatedOrDeleted() throws Exception {
+            String empty = listETag();
+            createShortUrl("https://www.etag.com");
+            expectModified(empty);
+
+            String created = listETag();
+            mockMvc.perform(delete("/api/urls/" + getFirstUrlId())
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isNoContent());
+            expectModified(created);
+        }
+
+        @Test
+        void shouldChangeETagWhenClicksAreFlushed() throws Exception {
+            ShortenUrlResponse url = createShortUrl("https://www.etag.com");
+            String etag = listETag();
+
+            mockMvc.perform(get("/r/" + url.shortCode())).andExpect(status().isFound());
+            clickCounter.flush();
+
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken)
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", not(etag)))
+                    .andExpect(jsonPath("$[0].clickCount").value(1));
+        }
+
+        @Test
+        void shouldNotShareETagsBetweenUsers() throws Exception {
+            String etag = listETag();
+            String otherToken = createSecondUser();
+
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + otherToken)
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isOk());
+        }
+    }
+
     @Nested
     class DeleteUrl {
 
@@ -424,6 +591,362 @@ class UrlControllerIntegrationTest {
         }
     }
 
+    @Nested
+    class DeactivateUrls {
+
+        private List<Long> listIds(String token) throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<Map<String, Object>> urls = objectMapper.readValue(
+                    result.getResponse().getContentAsString(), new TypeReference<>() {});
+            return urls.stream().map(url -> ((Number) url.get("id")).longValue()).toList();
+        }
+
+        @Test
+        void shouldDeactivateOwnUrlsByIdAndSkipOthers() throws Exception {
+            ShortenUrlResponse first = createShortUrl("https://www.deactivate-1.com");
+            createShortUrl("https://www.deactivate-2.com");
+            List<Long> ids = listIds(authToken);
+            mockMvc.perform(get("/r/" + first.shortCode())).andExpect(status().isFound());
+
+            String otherToken = createSecondUser();
+            mockMvc.perform(post("/api/shorten")
+                            .header("Authorization", "Bearer " + otherToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ShortenUrlRequest("https://www.other.com"))))
+                    .andExpect(status().isCreated());
+            List<Long> requested = new ArrayList<>(ids);
+            requested.addAll(listIds(otherToken));
+
+            mockMvc.perform(post("/api/urls/deactivate")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of("ids", requested))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.deactivated").value(2));
+
+            mockMvc.perform(get("/r/" + first.shortCode()))
+                    .andExpect(status().isGone());
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(jsonPath("$[*].active", everyItem(is(false))));
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + otherToken))
+                    .andExpect(jsonPath("$[0].active").value(true));
+
+            mockMvc.perform(post("/api/urls/deactivate")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of("ids", ids))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.deactivated").value(0));
+        }
+
+        @Test
+        void shouldDeactivateUrlsCreatedInRange() throws Exception {
+            LocalDateTime from = LocalDateTime.now().minusSeconds(1);
+            for (int i = 0; i < 3; i++) {
+                createShortUrl("https://www.range-" + i + ".com");
+            }
+            LocalDateTime to = LocalDateTime.now().plusSeconds(1);
+
+            mockMvc.perform(post("/api/urls/deactivate")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of(
+                                    "createdFrom", from.toString(), "createdTo", to.toString()))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.deactivated").value(3));
+        }
+
+        @Test
+        void shouldRejectRequestWithBothIdsAndRangeOrNeither() throws Exception {
+            mockMvc.perform(post("/api/urls/deactivate")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest());
+
+            mockMvc.perform(post("/api/urls/deactivate")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of(
+                                    "ids", List.of(1), "createdFrom", LocalDateTime.now().toString()))))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldRejectDeactivateWithoutAuthentication() throws Exception {
+            mockMvc.perform(post("/api/urls/deactivate")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\":[1]}"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    class ExportUrls {
+
+        @Test
+        void shouldExportAllOwnUrlsAsNdjson() throws Exception {
+            createShortUrl("https://www.export-1.com");
+            createShortUrl("https://www.export-2.com");
+
+            MvcResult result = mockMvc.perform(get("/api/urls/export")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn();
+
+            String[] lines = result.getResponse().getContentAsString().split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(objectMapper.readTree(lines[0]).get("originalUrl").asText()).isEqualTo("https://www.export-2.com");
+            assertThat(objectMapper.readTree(lines[1]).get("originalUrl").asText()).isEqualTo("https://www.export-1.com");
+        }
+
+        @Test
+        void shouldExportCsvWithHeader() throws Exception {
+            ShortenUrlResponse created = createShortUrl("https://www.export-csv.com");
+
+            MvcResult result = mockMvc.perform(get("/api/urls/export")
+                            .header("Authorization", "Bearer " + authToken)
+                            .param("format", "csv"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"urls.csv\""))
+                    .andReturn();
+
+            String[] lines = result.getResponse().getContentAsString().split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).isEqualTo("id,shortCode,shortUrl,originalUrl,active,createdAt,clickCount");
+            assertThat(lines[1]).contains(created.shortCode() + ",", ",https://www.export-csv.com,true,");
+        }
+
+        @Test
+        void shouldRejectUnknownFormat() throws Exception {
+            mockMvc.perform(get("/api/urls/export")
+                            .header("Authorization", "Bearer " + authToken)
+                            .param("format", "xml"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class IdempotentShorten {
+
+        private MvcResult shorten(String idempotencyKey, String originalUrl) throws Exception {
+            return mockMvc.perform(post("/api/shorten")
+                            .header("Authorization", "Bearer " + authToken)
+                            .header("Idempotency-Key", idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ShortenUrlRequest(originalUrl))))
+                    .andReturn();
+        }
+
+        @Test
+        void retryWithSameKeyShouldReturnTheSameLinkWithoutCreatingAnother() throws Exception {
+            MvcResult first = shorten("retry-1", "https://www.idempotent.com");
+            MvcResult retry = shorten("retry-1", "https://www.idempotent.com");
+
+            assertThat(first.getResponse().getStatus()).isEqualTo(201);
+            assertThat(retry.getResponse().getStatus()).isEqualTo(201);
+            assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(jsonPath("$", hasSize(1)));
+        }
+
+        @Test
+        void reusingKeyForAnotherUrlShouldBeRejected() throws Exception {
+            shorten("retry-2", "https://www.idempotent.com/a");
+
+            assertThat(shorten("retry-2", "https://www.idempotent.com/b").getResponse().getStatus()).isEqualTo(400);
+        }
+    }
+
+    @Nested
+    class BulkShorten {
+
+        private String bulkBody(List<String> urls) throws Exception {
+            return objectMapper.writeValueAsString(new BulkShortenRequest(urls));
+        }
+
+        @Test
+        void shouldCreateAllValidUrlsAndReportInvalidOnesInOrder() throws Exception {
+            mockMvc.perform(post("/api/shorten/bulk")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bulkBody(List.of("https://www.bulk-1.com", "not-a-url", "https://www.bulk-2.com"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(3)))
+                    .andExpect(jsonPath("$[0].index").value(0))
+                    .andExpect(jsonPath("$[0].url.originalUrl").value("https://www.bulk-1.com"))
+                    .andExpect(jsonPath("$[1].url").doesNotExist())
+                    .andExpect(jsonPath("$[1].error").value("URL must start with http:// or https://"))
+                    .andExpect(jsonPath("$[2].url.originalUrl").value("https://www.bulk-2.com"));
+
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)));
+        }
+
+        @Test
+        void shouldCreateLargeBatchesWithUniqueRedirectableCodes() throws Exception {
+            List<String> urls = new ArrayList<>();
+            for (int i = 0; i < 1_200; i++) {
+                urls.add("https://www.bulk.com/" + i);
+            }
+
+            MvcResult result = mockMvc.perform(post("/api/shorten/bulk")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bulkBody(urls)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            List<BulkShortenItemResponse> items = objectMapper.readValue(
+                    result.getResponse().getContentAsString(), new TypeReference<>() {});
+            Set<String> shortCodes = new HashSet<>();
+            for (BulkShortenItemResponse item : items) {
+                assertThat(item.error()).isNull();
+                assertThat(item.url().originalUrl()).isEqualTo(urls.get(item.index()));
+                shortCodes.add(item.url().shortCode());
+            }
+            assertThat(shortCodes).hasSize(1_200);
+
+            BulkShortenItemResponse last = items.get(items.size() - 1);
+            mockMvc.perform(get("/r/" + last.url().shortCode()))
+                    .andExpect(status().isFound())
+                    .andExpect(header().string("Location", urls.get(urls.size() - 1)));
+        }
+
+        @Test
+        void shouldRejectEmptyBulkRequest() throws Exception {
+            mockMvc.perform(post("/api/shorten/bulk")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bulkBody(List.of())))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldRejectBulkRequestWithoutAuthentication() throws Exception {
+            mockMvc.perform(post("/api/shorten/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bulkBody(List.of("https://www.bulk-1.com"))))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    class UrlStats {
+
+        private void visit(String shortCode, String remoteAddress) throws Exception {
+            mockMvc.perform(get("/r/" + shortCode)
+                            .header("User-Agent", "stats-test")
+                            .with(request -> {
+                                request.setRemoteAddr(remoteAddress);
+                                return request;
+                            }))
+                    .andExpect(status().isFound());
+        }
+
+        @Test
+        void shouldReportClicksAndUniqueVisitors() throws Exception {
+            String shortCode = createShortUrl("https://www.macode101.com").shortCode();
+            Long urlId = getFirstUrlId();
+
+            visit(shortCode, "10.0.0.1");
+            visit(shortCode, "10.0.0.1");
+            visit(shortCode, "10.0.0.2");
+            uniqueVisitorTracker.flush();
+            visit(shortCode, "10.0.0.3");
+
+            mockMvc.perform(get("/api/urls/" + urlId + "/stats")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.shortCode").value(shortCode))
+                    .andExpect(jsonPath("$.totalClicks").value(4))
+                    .andExpect(jsonPath("$.uniqueVisitors").value(3))
+                    .andExpect(jsonPath("$.uniqueVisitorsRelativeError").value(closeTo(0.01625, 0.0001)));
+        }
+
+        @Test
+        void shouldReportClickSeriesFromRollups() throws Exception {
+            String shortCode = createShortUrl("https://www.macode101.com").shortCode();
+            Long urlId = getFirstUrlId();
+            visit(shortCode, "10.0.0.1");
+            visit(shortCode, "10.0.0.2");
+            clickEventWriter.flush();
+
+            mockMvc.perform(get("/api/urls/" + urlId + "/stats")
+                            .param("granularity", "hour")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.granularity").value("hour"))
+                    .andExpect(jsonPath("$.clicksInRange").value(2))
+                    .andExpect(jsonPath("$.clicks", hasSize(1)))
+                    .andExpect(jsonPath("$.clicks[0].clicks").value(2));
+        }
+
+        @Test
+        void shouldRejectUnknownGranularity() throws Exception {
+            createShortUrl("https://www.macode101.com");
+            Long urlId = getFirstUrlId();
+
+            mockMvc.perform(get("/api/urls/" + urlId + "/stats")
+                            .param("granularity", "week")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldReportNoVisitorsOutsideRange() throws Exception {
+            String shortCode = createShortUrl("https://www.macode101.com").shortCode();
+            Long urlId = getFirstUrlId();
+            visit(shortCode, "10.0.0.1");
+
+            mockMvc.perform(get("/api/urls/" + urlId + "/stats")
+                            .param("from", "2020-01-01")
+                            .param("to", "2020-01-31")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.from").value("2020-01-01"))
+                    .andExpect(jsonPath("$.uniqueVisitors").value(0));
+        }
+
+        @Test
+        void shouldRejectInvertedRange() throws Exception {
+            createShortUrl("https://www.macode101.com");
+            Long urlId = getFirstUrlId();
+
+            mockMvc.perform(get("/api/urls/" + urlId + "/stats")
+                            .param("from", "2024-02-01")
+                            .param("to", "2024-01-01")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldRejectStatsOfAnotherUsersUrl() throws Exception {
+            createShortUrl("https://www.macode101.com");
+            Long urlId = getFirstUrlId();
+
+            mockMvc.perform(get("/api/urls/" + urlId + "/stats")
+                            .header("Authorization", "Bearer " + createSecondUser()))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void shouldRejectStatsOfNonExistentUrl() throws Exception {
+            mockMvc.perform(get("/api/urls/99999/stats")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     @Nested
     class IntegrationScenarios {
 
@@ -538,5 +1061,135 @@ class UrlControllerIntegrationTest {
 
             assertThat(duration).isLessThan(2000);
         }
+
+        @Test
+        void shouldListTenThousandUrlsInPages() throws Exception {
+            List<String> urls = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                urls.add("https://www.listing-" + i + ".com");
+            }
+            mockMvc.perform(post("/api/shorten/bulk")
+                            .header("Authorization", "Bearer " + authToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new BulkShortenRequest(urls))))
+                    .andExpect(status().isOk());
+
+            Set<String> shortCodes = new HashSet<>();
+            String cursor = null;
+            long startTime = System.currentTimeMillis();
+            do {
+                var request = get("/api/urls")
+                        .header("Authorization", "Bearer " + authToken)
+                        .param("limit", "1000");
+                if (cursor != null) {
+                    request.param("cursor", cursor);
+                }
+                MvcResult result = mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn();
+                List<Map<String, Object>> page = objectMapper.readValue(
+                        result.getResponse().getContentAsString(), new TypeReference<>() {});
+                page.forEach(url -> shortCodes.add((String) url.get("shortCode")));
+                cursor = result.getResponse().getHeader("X-Next-Cursor");
+            } while (cursor != null);
+            long duration = System.currentTimeMillis() - startTime;
+
+            assertThat(shortCodes).hasSize(10_000);
+            assertThat(duration).isLessThan(10000);
+        }
+    }
+
+    @Nested
+    class Import {
+
+        private List<ImportLineResult> importUrls(String body, MediaType contentType, long offset) throws Exception {
+            MvcResult result = mockMvc.perform(post("/api/import")
+                            .header("Authorization", "Bearer " + authToken)
+                            .param("offset", String.valueOf(offset))
+                            .contentType(contentType)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn();
+
+            List<ImportLineResult> results = new ArrayList<>();
+            for (String line : result.getResponse().getContentAsString().split("\n")) {
+                results.add(objectMapper.readValue(line, ImportLineResult.class));
+            }
+            return results;
+        }
+
+        private String uniqueShortCode() {
+            return UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        }
+
+        @Test
+        void shouldImportNdjsonAndReportEachLine() throws Exception {
+            String preassigned = uniqueShortCode();
+            String body = String.join("\n",
+                    "{\"originalUrl\":\"https://www.import-1.com\"}",
+                    "{\"originalUrl\":\"not-a-url\"}",
+                    "",
+                    "{\"originalUrl\":\"https://www.import-2.com\",\"shortCode\":\"" + preassigned + "\"}",
+                    "{\"originalUrl\":\"https://www.import-3.com\",\"shortCode\":\"" + preassigned + "\"}",
+                    "{broken");
+
+            List<ImportLineResult> results = importUrls(body, MediaType.APPLICATION_NDJSON, 0);
+
+            assertThat(results).extracting(ImportLineResult::line).containsExactly(1L, 2L, 4L, 5L, 6L);
+            assertThat(results.get(0).shortCode()).isNotNull();
+            assertThat(results.get(1).error()).isEqualTo("URL must start with http:// or https://");
+            assertThat(results.get(2).shortCode()).isEqualTo(preassigned);
+            assertThat(results.get(2).shortUrl()).endsWith("/r/" + preassigned);
+            assertThat(results.get(3).error()).contains(preassigned);
+            assertThat(results.get(4).error()).isEqualTo("Malformed JSON");
+
+            mockMvc.perform(get("/r/" + preassigned))
+                    .andExpect(status().isFound())
+                    .andExpect(header().string("Location", "https://www.import-2.com"));
+        }
+
+        @Test
+        void shouldImportCsvWithHeaderAndQuotedFields() throws Exception {
+            String body = String.join("\n",
+                    "originalUrl,shortCode",
+                    "\"https://www.import-csv.com/?a=1,2\",",
+                    "https://www.import-csv.com/2,bad-code!");
+
+            List<ImportLineResult> results = importUrls(body, MediaType.valueOf("text/csv"), 0);
+
+            assertThat(results).hasSize(2);
+            assertThat(results.get(0).line()).isEqualTo(2);
+            assertThat(results.get(0).error()).isNull();
+            assertThat(results.get(1).error()).isEqualTo("Short code must be 4 to 8 letters or digits");
+
+            mockMvc.perform(get("/api/urls")
+                            .header("Authorization", "Bearer " + authToken))
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].originalUrl").value("https://www.import-csv.com/?a=1,2"));
+        }
+
+        @Test
+        void shouldResumeFromOffset() throws Exception {
+            StringBuilder body = new StringBuilder();
+            for (int i = 1; i <= 1_200; i++) {
+                body.append("https://www.import-offset.com/").append(i).append('\n');
+            }
+
+            List<ImportLineResult> results = importUrls(body.toString(), MediaType.valueOf("text/csv"), 1_000);
+
+            assertThat(results).hasSize(200);
+            assertThat(results.get(0).line()).isEqualTo(1_001);
+            assertThat(results).allSatisfy(result -> assertThat(result.error()).isNull());
+            assertThat(results.stream().map(ImportLineResult::shortCode).distinct()).hasSize(200);
+        }
+
+        @Test
+        void shouldRejectImportWithoutAuthentication() throws Exception {
+            mockMvc.perform(post("/api/import")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"originalUrl\":\"https://www.import.com\"}"))
+                    .andExpect(status().isUnauthorized());
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.macode101.shortenerurl.service;
 
+import com.macode101.shortenerurl.cache.UserExistenceCache;
 import com.macode101.shortenerurl.dto.AuthResponse;
 import com.macode101.shortenerurl.dto.LoginRequest;
 import com.macode101.shortenerurl.dto.RegisterRequest;
@@ -31,6 +32,9 @@ class AuthenticationServiceImplTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private UserExistenceCache userExistenceCache;
+
     @InjectMocks
     private AuthenticationServiceImpl authenticationService;
 
@@ -57,6 +61,7 @@ class AuthenticationServiceImplTest {
         assertEquals("test-token", response.accessToken());
         verify(userRepository).existsByEmail(request.email());
         verify(userRepository).save(any(User.class));
+        verify(userExistenceCache).markExisting("test-uid");
         verify(jwtUtil).generateToken(anyString(), eq("test@example.com"), anyList());
     }
 
@@ -0,0 +1,79 @@
+package com.macode101.shortenerurl.service;
+
+import com.macode101.shortenerurl.cache.RedirectCache;
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.ExpiredLink;
+import com.macode101.shortenerurl.dto.RedirectTarget;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import com.macode101.shortenerurl.repository.UserRepository;
+import com.macode101.shortenerurl.snapshot.RedirectSnapshotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExpiredLinkReaperTest {
+
+    private final ShortenedUrlRepository shortenedUrlRepository = mock(ShortenedUrlRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RedirectCache redirectCache = mock(RedirectCache.class);
+    private final RedirectSnapshotService redirectSnapshotService = mock(RedirectSnapshotService.class);
+    private final ApplicationConfiguration config = new ApplicationConfiguration();
+
+    private ExpiredLinkReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        config.getExpiration().setBatchSize(2);
+        config.getExpiration().setMaxBatchesPerRun(3);
+        reaper = new ExpiredLinkReaper(shortenedUrlRepository, userRepository, redirectCache,
+                redirectSnapshotService, config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void reapShouldDeactivateBatchesUntilOneIsShortAndEvictTheirCodes() {
+        when(shortenedUrlRepository.findExpiredLinks(any(), eq(Limit.of(2)))).thenReturn(
+                List.of(new ExpiredLink(1L, "alice", "code1", "https://example.com/1"),
+                        new ExpiredLink(2L, "bob", "code2", "https://example.com/2")),
+                List.of(new ExpiredLink(3L, "alice", "code3", "https://example.com/3")));
+        when(shortenedUrlRepository.deactivateExpired(anyCollection(), any())).thenReturn(2, 1);
+
+        reaper.reap();
+
+        verify(shortenedUrlRepository, times(2)).findExpiredLinks(any(), any());
+        verify(shortenedUrlRepository).deactivateExpired(eq(List.of(1L, 2L)), any());
+        verify(shortenedUrlRepository).deactivateExpired(eq(List.of(3L)), any());
+        verify(redirectCache).invalidateAll(List.of("code1", "code2"));
+        verify(redirectSnapshotService).update("code3", new RedirectTarget("https://example.com/3", false));
+        verify(userRepository, times(2)).incrementLinksVersion("alice");
+        verify(userRepository, times(1)).incrementLinksVersion("bob");
+    }
+
+    @Test
+    void reapShouldStopAfterTheConfiguredNumberOfBatches() {
+        when(shortenedUrlRepository.findExpiredLinks(any(), any())).thenReturn(
+                List.of(new ExpiredLink(1L, "alice", "code1", "https://example.com/1"),
+                        new ExpiredLink(2L, "alice", "code2", "https://example.com/2")));
+
+        reaper.reap();
+
+        verify(shortenedUrlRepository, times(3)).findExpiredLinks(any(), any());
+    }
+
+    @Test
+    void reapShouldGiveUpOnDatabaseErrorsUntilTheNextRun() {
+        when(shortenedUrlRepository.findExpiredLinks(any(), any())).thenThrow(new QueryTimeoutException("down"));
+
+        reaper.reap();
+
+        verifyNoInteractions(redirectCache, userRepository);
+    }
+}
@@ -0,0 +1,121 @@
+package com.macode101.shortenerurl.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.macode101.shortenerurl.analytics.ClickCounter;
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.UrlListRow;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExportServiceImplTest {
+
+    private static final String USER_ID = "user";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+
+    private final ShortenedUrlRepository repository = mock(ShortenedUrlRepository.class);
+    private final ClickCounter clickCounter = mock(ClickCounter.class);
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationConfiguration configuration = new ApplicationConfiguration();
+        configuration.setBaseUrl("http://localhost");
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportServiceImpl(repository, clickCounter, configuration, objectMapper,
+                mock(PlatformTransactionManager.class));
+    }
+
+    private static UrlListRow row(long id, String originalUrl) {
+        return new UrlListRow(id, "code" + id, originalUrl, true, CREATED_AT, 3L);
+    }
+
+    @Test
+    void ndjsonShouldWriteOneObjectPerLineIncludingUnflushedClicks() throws IOException {
+        when(repository.streamListRowsByUid(USER_ID)).thenReturn(Stream.of(row(2, "https://b.com"), row(1, "https://a.com")));
+        when(clickCounter.unflushed("code2")).thenReturn(4L);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.exportUrls(USER_ID, ExportService.Format.NDJSON, output);
+
+        assertEquals("""
+                {"id":2,"shortCode":"code2","shortUrl":"http://localhost/r/code2","originalUrl":"https://b.com","active":true,"createdAt":"2026-01-02T03:04:05","clickCount":7}
+                {"id":1,"shortCode":"code1","shortUrl":"http://localhost/r/code1","originalUrl":"https://a.com","active":true,"createdAt":"2026-01-02T03:04:05","clickCount":3}
+                """, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csvShouldQuoteFieldsContainingSeparators() throws IOException {
+        when(repository.streamListRowsByUid(USER_ID)).thenReturn(Stream.of(row(1, "https://a.com/?q=\"x\",y")));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.exportUrls(USER_ID, ExportService.Format.CSV, output);
+
+        assertEquals("""
+                id,shortCode,shortUrl,originalUrl,active,createdAt,clickCount
+                1,code1,http://localhost/r/code1,"https://a.com/?q=""x"",y",true,2026-01-02T03:04:05,3
+                """, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportShouldWriteRowsWhileStillReadingFromTheCursor() throws IOException {
+        int rowCount = 1_000_000;
+        CountingOutputStream output = new CountingOutputStream();
+        AtomicLong writtenHalfway = new AtomicLong(-1);
+        Stream<UrlListRow> rows = LongStream.rangeClosed(1, rowCount)
+                .peek(id -> {
+                    if (id == rowCount / 2) {
+                        writtenHalfway.set(output.bytes);
+                    }
+                })
+                .mapToObj(id -> row(id, "https://example.com/" + id));
+        when(repository.streamListRowsByUid(USER_ID)).thenReturn(rows);
+
+        exportService.exportUrls(USER_ID, ExportService.Format.NDJSON, output);
+
+        assertEquals(rowCount, output.lines);
+        // Half the rows must already be on the wire before the second half is read.
+        assertTrue(writtenHalfway.get() > output.bytes / 3, "rows were buffered instead of streamed");
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        long bytes;
+        long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.macode101.shortenerurl.service;
+
+import com.macode101.shortenerurl.cache.ShortCodeBloomFilter;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import com.macode101.shortenerurl.repository.UserRepository;
+import com.macode101.shortenerurl.util.ShortCodeGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortUrlBatchWriterTest {
+
+    @Mock
+    private ShortenedUrlRepository shortenedUrlRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ShortCodeGenerator shortCodeGenerator;
+
+    @Mock
+    private ShortCodeBloomFilter shortCodeBloomFilter;
+
+    @InjectMocks
+    private ShortUrlBatchWriter shortUrlBatchWriter;
+
+    private static final String USER_ID = "userId";
+
+    @Test
+    void insertShouldSaveAllItemsInOneBatch() {
+        when(shortCodeGenerator.generate()).thenReturn("code1", "code2");
+        when(shortenedUrlRepository.findExistingShortCodes(anyCollection())).thenReturn(List.of());
+        when(shortenedUrlRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ShortUrlBatchWriter.Outcome> outcomes = shortUrlBatchWriter.insert(List.of(
+                new ShortUrlBatchWriter.Item("https://example.com/1", null),
+                new ShortUrlBatchWriter.Item("https://example.com/2", null)), USER_ID);
+
+        assertEquals("https://example.com/1", outcomes.get(0).saved().getOriginalUrl());
+        assertEquals("https://example.com/2", outcomes.get(1).saved().getOriginalUrl());
+        assertNotEquals(outcomes.get(0).saved().getShortCode(), outcomes.get(1).saved().getShortCode());
+        verify(shortenedUrlRepository, times(1)).saveAllAndFlush(anyList());
+        verify(shortCodeBloomFilter, times(2)).put(anyString());
+        verify(userRepository, times(1)).incrementLinksVersion(USER_ID);
+    }
+
+    @Test
+    void insertShouldReplaceGeneratedCodesAlreadyInUse() {
+        when(shortCodeGenerator.generate()).thenReturn("taken", "fresh");
+        when(shortenedUrlRepository.findExistingShortCodes(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).contains("taken")
+                        ? List.of("taken") : List.of());
+        when(shortenedUrlRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ShortUrlBatchWriter.Outcome> outcomes = shortUrlBatchWriter.insert(
+                List.of(new ShortUrlBatchWriter.Item("https://example.com", null)), USER_ID);
+
+        assertEquals("fresh", outcomes.get(0).saved().getShortCode());
+    }
+
+    @Test
+    void insertShouldRetryBatchWhenInsertRacesWithAnotherNode() {
+        when(shortCodeGenerator.generate()).thenReturn("raced", "fresh");
+        when(shortenedUrlRepository.findExistingShortCodes(anyCollection())).thenReturn(List.of(), List.of("raced"), List.of());
+        when(shortenedUrlRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate short code"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ShortUrlBatchWriter.Outcome> outcomes = shortUrlBatchWriter.insert(
+                List.of(new ShortUrlBatchWriter.Item("https://example.com", null)), USER_ID);
+
+        assertEquals("fresh", outcomes.get(0).saved().getShortCode());
+        verify(shortenedUrlRepository, times(2)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void insertShouldRethrowConstraintViolationsUnrelatedToShortCode() {
+        when(shortCodeGenerator.generate()).thenReturn("code1");
+        when(shortenedUrlRepository.findExistingShortCodes(anyCollection())).thenReturn(List.of());
+        when(shortenedUrlRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("uid not null"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> shortUrlBatchWriter.insert(
+                List.of(new ShortUrlBatchWriter.Item("https://example.com", null)), USER_ID));
+    }
+
+    @Test
+    void insertShouldRejectOnlyTheItemsWhosePreassignedCodeIsTakenOrRepeated() {
+        when(shortCodeGenerator.generate()).thenReturn("mine", "gen1");
+        when(shortenedUrlRepository.findExistingShortCodes(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).contains("taken")
+                        ? List.of("taken") : List.of());
+        when(shortenedUrlRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ShortUrlBatchWriter.Outcome> outcomes = shortUrlBatchWriter.insert(List.of(
+                new ShortUrlBatchWriter.Item("https://example.com/1", "mine"),
+                new ShortUrlBatchWriter.Item("https://example.com/2", "taken"),
+                new ShortUrlBatchWriter.Item("https://example.com/3", "mine"),
+                new ShortUrlBatchWriter.Item("https://example.com/4", null)), USER_ID);
+
+        assertEquals("mine", outcomes.get(0).saved().getShortCode());
+        assertEquals("Short code is already in use: taken", outcomes.get(1).error());
+        assertEquals("Short code appears more than once in the batch: mine", outcomes.get(2).error());
+        assertEquals("gen1", outcomes.get(3).saved().getShortCode());
+        verify(shortCodeBloomFilter, times(2)).put(anyString());
+    }
+}
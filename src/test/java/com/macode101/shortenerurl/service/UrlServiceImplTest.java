@@ -1,29 +1,50 @@
 package com.macode101.shortenerurl.service;
 
+import com.macode101.shortenerurl.cache.RedirectCache;
+import com.macode101.shortenerurl.cache.ShortCodeBloomFilter;
 import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.BulkShortenItemResponse;
+import com.macode101.shortenerurl.dto.RedirectTarget;
 import com.macode101.shortenerurl.dto.ShortenUrlResponse;
 import com.macode101.shortenerurl.dto.UrlListResponse;
+import com.macode101.shortenerurl.dto.UrlListRow;
+import com.macode101.shortenerurl.dto.UrlPage;
 import com.macode101.shortenerurl.entity.ShortenedUrl;
 import com.macode101.shortenerurl.exception.BadRequestException;
 import com.macode101.shortenerurl.exception.ForbiddenException;
 import com.macode101.shortenerurl.exception.ResourceNotFoundException;
 import com.macode101.shortenerurl.exception.UrlShortenerException;
+import com.macode101.shortenerurl.exception.ValidationException;
 import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
 import com.macode101.shortenerurl.repository.UserRepository;
+import com.macode101.shortenerurl.cache.UserExistenceCache;
+import com.macode101.shortenerurl.snapshot.RedirectSnapshotService;
+import com.macode101.shortenerurl.util.Hashing;
 import com.macode101.shortenerurl.util.ShortCodeGenerator;
+import com.macode101.shortenerurl.writebehind.LinkWriteBehind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +54,9 @@ class UrlServiceImplTest {
     @Mock
     private ShortenedUrlRepository shortenedUrlRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private ShortCodeGenerator shortCodeGenerator;
 
@@ -40,24 +64,54 @@ class UrlServiceImplTest {
     private ApplicationConfiguration applicationConfiguration;
 
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
+
+    @Mock
+    private ShortCodeBloomFilter shortCodeBloomFilter;
+
+    @Mock
+    private RedirectSnapshotService redirectSnapshotService;
+
+    @Mock
+    private ShortUrlBatchWriter shortUrlBatchWriter;
+
+    @Mock
+    private LinkWriteBehind linkWriteBehind;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private RedirectCache redirectCache = new RedirectCache(new ApplicationConfiguration(), new SimpleMeterRegistry());
 
-    @InjectMocks
     private UrlServiceImpl urlService;
 
     private static final String BASE_URL = "http://localhost:8080";
     private static final String USER_ID = "userId";
 
+    private final ApplicationConfiguration.ShortCode shortCodeConfig = new ApplicationConfiguration.ShortCode();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(applicationConfiguration.getShortCode()).thenReturn(shortCodeConfig);
+        lenient().when(applicationConfiguration.getBaseUrl()).thenReturn(BASE_URL);
+        lenient().when(applicationConfiguration.getRedirect()).thenReturn(new ApplicationConfiguration.Redirect());
+        urlService = new UrlServiceImpl(shortenedUrlRepository, userRepository, shortCodeGenerator, applicationConfiguration,
+                userExistenceCache, redirectCache, shortCodeBloomFilter, redirectSnapshotService,
+                validator, shortUrlBatchWriter, linkWriteBehind, transactionManager);
+    }
+
     @Test
     void createShortUrlWithValidUrlShouldReturnShortenUrlResponse() {
         String originalUrl = "https://example.com/very/long/url";
         String shortCode = "abc123";
 
-        when(applicationConfiguration.getBaseUrl()).thenReturn(BASE_URL);
-        when(userRepository.existsByUid(USER_ID)).thenReturn(true);
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
         when(shortCodeGenerator.generate()).thenReturn(shortCode);
-        when(shortenedUrlRepository.existsByShortCode(shortCode)).thenReturn(false);
-        when(shortenedUrlRepository.save(any(ShortenedUrl.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(shortenedUrlRepository.saveAndFlush(any(ShortenedUrl.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         ShortenUrlResponse response = urlService.createShortUrl(originalUrl, USER_ID);
 
@@ -67,13 +121,95 @@ class UrlServiceImplTest {
         assertEquals(originalUrl, response.originalUrl());
 
         verify(shortCodeGenerator).generate();
-        verify(shortenedUrlRepository).save(any(ShortenedUrl.class));
+        verify(shortenedUrlRepository).saveAndFlush(any(ShortenedUrl.class));
+        verify(shortenedUrlRepository, never()).existsByShortCode(anyString());
+        verify(shortCodeBloomFilter).put(shortCode);
+        verify(userRepository).incrementLinksVersion(USER_ID);
+    }
+
+    @Test
+    void createShortUrlShouldStoreUrlHashAndSkipLookupWhenReuseIsDisabled() {
+        String originalUrl = "https://example.com";
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
+        when(shortCodeGenerator.generate()).thenReturn("abc123");
+        when(shortenedUrlRepository.saveAndFlush(any(ShortenedUrl.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        urlService.createShortUrl(originalUrl, USER_ID);
+
+        verify(shortenedUrlRepository).saveAndFlush(argThat(url -> url.getUrlHash() == Hashing.sha256Prefix64(originalUrl)));
+        verify(shortenedUrlRepository, never()).findActiveShortCodesByDestination(anyString(), anyLong(), anyString(), any());
+    }
+
+    @Test
+    void createShortUrlShouldReturnExistingActiveLinkWhenReuseIsEnabled() {
+        String originalUrl = "https://example.com";
+        shortCodeConfig.setReuseExisting(true);
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
+        when(shortenedUrlRepository.findActiveShortCodesByDestination(
+                USER_ID, Hashing.sha256Prefix64(originalUrl), originalUrl, Limit.of(1))).thenReturn(List.of("exist1"));
+
+        ShortenUrlResponse response = urlService.createShortUrl(originalUrl, USER_ID);
+
+        assertEquals("exist1", response.shortCode());
+        assertEquals(BASE_URL + "/r/exist1", response.shortUrl());
+        verify(shortCodeGenerator, never()).generate();
+        verify(shortenedUrlRepository, never()).saveAndFlush(any(ShortenedUrl.class));
+    }
+
+    @Test
+    void createShortUrlShouldInsertWhenReuseIsEnabledButNoActiveLinkExists() {
+        shortCodeConfig.setReuseExisting(true);
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
+        when(shortenedUrlRepository.findActiveShortCodesByDestination(anyString(), anyLong(), anyString(), any()))
+                .thenReturn(List.of());
+        when(shortCodeGenerator.generate()).thenReturn("new123");
+        when(shortenedUrlRepository.saveAndFlush(any(ShortenedUrl.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals("new123", urlService.createShortUrl("https://example.com", USER_ID).shortCode());
+    }
+
+    @Test
+    void createShortUrlShouldAppendToWriteBehindLogInsteadOfInsertingWhenEnabled() {
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
+        when(linkWriteBehind.isEnabled()).thenReturn(true);
+        when(shortCodeGenerator.generate()).thenReturn("seq1234");
+
+        ShortenUrlResponse response = urlService.createShortUrl("https://example.com", USER_ID);
+
+        assertEquals("seq1234", response.shortCode());
+        verify(linkWriteBehind).append("seq1234", USER_ID, "https://example.com");
+        verify(shortenedUrlRepository, never()).saveAndFlush(any(ShortenedUrl.class));
+        verify(shortCodeBloomFilter).put("seq1234");
+    }
+
+    @Test
+    void createShortUrlWithExpiryShouldInsertDirectlyWithoutReuseOrWriteBehind() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(1);
+        shortCodeConfig.setReuseExisting(true);
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
+        when(linkWriteBehind.isEnabled()).thenReturn(true);
+        when(shortCodeGenerator.generate()).thenReturn("abc123");
+        when(shortenedUrlRepository.saveAndFlush(any(ShortenedUrl.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        urlService.createShortUrl("https://example.com", expiresAt, USER_ID);
+
+        verify(shortenedUrlRepository).saveAndFlush(argThat(url -> expiresAt.equals(url.getExpiresAt())));
+        verify(shortenedUrlRepository, never()).findActiveShortCodesByDestination(anyString(), anyLong(), anyString(), any());
+        verify(linkWriteBehind, never()).append(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void getOriginalUrlShouldResolveLinksPendingInWriteBehindLog() {
+        when(linkWriteBehind.pendingTarget("seq1234")).thenReturn(new RedirectTarget("https://example.com", true));
+
+        assertEquals("https://example.com", urlService.getOriginalUrl("seq1234"));
+        verify(shortenedUrlRepository, never()).findRedirectTargetByShortCode(anyString());
     }
 
     @Test
     void createShortUrlWithNonExistentUserShouldThrowResourceNotFoundException() {
         String originalUrl = "https://example.com";
-        when(userRepository.existsByUid(USER_ID)).thenReturn(false);
+        when(userExistenceCache.exists(USER_ID)).thenReturn(false);
         assertThrows(ResourceNotFoundException.class, () -> urlService.createShortUrl(originalUrl, USER_ID));
     }
 
@@ -83,12 +219,13 @@ class UrlServiceImplTest {
         String firstCode = "abc123";
         String secondCode = "def456";
 
-        when(applicationConfiguration.getBaseUrl()).thenReturn(BASE_URL);
-        when(userRepository.existsByUid(USER_ID)).thenReturn(true);
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
         when(shortCodeGenerator.generate()).thenReturn(firstCode, secondCode);
+        when(shortenedUrlRepository.saveAndFlush(argThat(url -> url != null && firstCode.equals(url.getShortCode()))))
+                .thenThrow(new DataIntegrityViolationException("duplicate short code"));
+        when(shortenedUrlRepository.saveAndFlush(argThat(url -> url != null && secondCode.equals(url.getShortCode()))))
+                .thenAnswer(invocation -> invocation.getArgument(0));
         when(shortenedUrlRepository.existsByShortCode(firstCode)).thenReturn(true);
-        when(shortenedUrlRepository.existsByShortCode(secondCode)).thenReturn(false);
-        when(shortenedUrlRepository.save(any(ShortenedUrl.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         ShortenUrlResponse response = urlService.createShortUrl(originalUrl, USER_ID);
 
@@ -96,38 +233,129 @@ class UrlServiceImplTest {
         assertEquals(secondCode, response.shortCode());
         verify(shortCodeGenerator, times(2)).generate();
         verify(shortenedUrlRepository).existsByShortCode(firstCode);
-        verify(shortenedUrlRepository).existsByShortCode(secondCode);
+        verify(shortenedUrlRepository, never()).existsByShortCode(secondCode);
+        verify(shortCodeBloomFilter).put(secondCode);
+        verify(shortCodeBloomFilter, never()).put(firstCode);
+    }
+
+    @Test
+    void createShortUrlShouldRethrowConstraintViolationsUnrelatedToShortCode() {
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
+        when(shortCodeGenerator.generate()).thenReturn("abc123");
+        when(shortenedUrlRepository.saveAndFlush(any(ShortenedUrl.class)))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        when(shortenedUrlRepository.existsByShortCode("abc123")).thenReturn(false);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> urlService.createShortUrl("https://example.com", USER_ID));
+        verify(shortCodeGenerator).generate();
     }
 
     @Test
     void createShortUrlWithMaxCollisionsShouldThrowUrlShortenerException() {
         String originalUrl = "https://example.com";
         
-        when(userRepository.existsByUid(USER_ID)).thenReturn(true);
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
         when(shortCodeGenerator.generate()).thenReturn("code1", "code2", "code3", "code4", "code5");
+        when(shortenedUrlRepository.saveAndFlush(any(ShortenedUrl.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate short code"));
         when(shortenedUrlRepository.existsByShortCode(anyString())).thenReturn(true);
 
         assertThrows(UrlShortenerException.class, () -> urlService.createShortUrl(originalUrl, USER_ID));
         verify(shortCodeGenerator, times(5)).generate();
     }
 
+    @Test
+    void createShortUrlsShouldInsertValidUrlsInOneBatchAndReportInvalidOnesInOrder() {
+        when(userExistenceCache.exists(USER_ID)).thenReturn(true);
+        when(shortUrlBatchWriter.insert(anyList(), eq(USER_ID))).thenReturn(List.of(
+                new ShortUrlBatchWriter.Outcome(createShortenedUrl(1L, "code1", "https://example.com/1", USER_ID, true), null),
+                new ShortUrlBatchWriter.Outcome(createShortenedUrl(2L, "code2", "https://example.com/2", USER_ID, true), null)));
+
+        List<BulkShortenItemResponse> results = urlService.createShortUrls(
+                List.of("https://example.com/1", "ftp://example.com", "https://example.com/2"), USER_ID);
+
+        assertEquals(3, results.size());
+        assertEquals("code1", results.get(0).url().shortCode());
+        assertNull(results.get(0).error());
+        assertNull(results.get(1).url());
+        assertEquals("URL must start with http:// or https://", results.get(1).error());
+        assertEquals("code2", results.get(2).url().shortCode());
+        verify(shortUrlBatchWriter, times(1)).insert(List.of(
+                new ShortUrlBatchWriter.Item("https://example.com/1", null),
+                new ShortUrlBatchWriter.Item("https://example.com/2", null)), USER_ID);
+    }
+
+    @Test
+    void createShortUrlsWithNonExistentUserShouldThrowResourceNotFoundException() {
+        when(userExistenceCache.exists(USER_ID)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> urlService.createShortUrls(List.of("https://example.com"), USER_ID));
+        verify(shortUrlBatchWriter, never()).insert(anyList(), anyString());
+    }
+
     @Test
     void getUserUrlsWithValidUserShouldReturnUrlList() {
         ShortenedUrl url1 = createShortenedUrl(1L, "abc123", "https://example.com/1", USER_ID, true);
         ShortenedUrl url2 = createShortenedUrl(2L, "def456", "https://example.com/2", USER_ID, false);
-        
-        when(shortenedUrlRepository.findByUidOrderByCreatedAtDesc(USER_ID))
-                .thenReturn(Arrays.asList(url1, url2));
+        when(applicationConfiguration.getListing()).thenReturn(new ApplicationConfiguration.Listing());
+        when(shortenedUrlRepository.findFirstPageByUid(USER_ID, Limit.of(101)))
+                .thenReturn(Arrays.asList(toRow(url1), toRow(url2)));
 
-        List<UrlListResponse> responses = urlService.getUserUrls(USER_ID);
+        UrlPage page = urlService.getUserUrls(USER_ID, null, null);
 
-        assertNotNull(responses);
+        List<UrlListResponse> responses = page.urls();
         assertEquals(2, responses.size());
         assertEquals("abc123", responses.get(0).shortCode());
+        assertEquals(BASE_URL + "/r/abc123", responses.get(0).shortUrl());
         assertEquals("def456", responses.get(1).shortCode());
         assertEquals(true, responses.get(0).active());
         assertEquals(false, responses.get(1).active());
-        verify(shortenedUrlRepository).findByUidOrderByCreatedAtDesc(USER_ID);
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getUserUrlsShouldReturnCursorThatContinuesAfterTheLastRow() {
+        ShortenedUrl url1 = createShortenedUrl(9L, "abc123", "https://example.com/1", USER_ID, true);
+        ShortenedUrl url2 = createShortenedUrl(7L, "def456", "https://example.com/2", USER_ID, true);
+        ShortenedUrl url3 = createShortenedUrl(5L, "ghi789", "https://example.com/3", USER_ID, true);
+        when(applicationConfiguration.getListing()).thenReturn(new ApplicationConfiguration.Listing());
+        when(shortenedUrlRepository.findFirstPageByUid(USER_ID, Limit.of(3))).thenReturn(List.of(toRow(url1), toRow(url2), toRow(url3)));
+
+        UrlPage first = urlService.getUserUrls(USER_ID, null, 2);
+
+        assertEquals(2, first.urls().size());
+        assertNotNull(first.nextCursor());
+
+        when(shortenedUrlRepository.findPageByUidAfter(USER_ID, url2.getCreatedAt(), 7L, Limit.of(3)))
+                .thenReturn(List.of(toRow(url3)));
+
+        UrlPage second = urlService.getUserUrls(USER_ID, first.nextCursor(), 2);
+
+        assertEquals(List.of("ghi789"), second.urls().stream().map(UrlListResponse::shortCode).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void getUserUrlsShouldRejectLimitAboveCapAndMalformedCursor() {
+        when(applicationConfiguration.getListing()).thenReturn(new ApplicationConfiguration.Listing());
+
+        assertThrows(ValidationException.class, () -> urlService.getUserUrls(USER_ID, null, 1_001));
+        assertThrows(ValidationException.class, () -> urlService.getUserUrls(USER_ID, null, 0));
+        assertThrows(ValidationException.class, () -> urlService.getUserUrls(USER_ID, "not a cursor", null));
+    }
+
+    @Test
+    void getUserUrlsShouldReportClickCountAsOfLastFlush() {
+        ShortenedUrl url = createShortenedUrl(1L, "abc123", "https://example.com/1", USER_ID, true);
+        url.setClickCount(40L);
+        when(applicationConfiguration.getListing()).thenReturn(new ApplicationConfiguration.Listing());
+        when(shortenedUrlRepository.findFirstPageByUid(eq(USER_ID), any())).thenReturn(List.of(toRow(url)));
+
+        UrlPage page = urlService.getUserUrls(USER_ID, null, null);
+
+        assertEquals(40L, page.urls().get(0).clickCount());
     }
 
     @Test
@@ -143,6 +371,85 @@ class UrlServiceImplTest {
         assertFalse(url.getActive());
         verify(shortenedUrlRepository).findById(urlId);
         verify(shortenedUrlRepository).save(url);
+        verify(redirectSnapshotService).update("abc123", new RedirectTarget("https://example.com", false));
+        verify(redirectCache).invalidate("abc123");
+        verify(userRepository).incrementLinksVersion(USER_ID);
+    }
+
+    @Test
+    void redirectDatabaseLoadShouldRunInAReadOnlyTransactionBoundedByTheLoadTimeout() {
+        String shortCode = "abc123";
+        ShortenedUrl url = createShortenedUrl(1L, shortCode, "https://example.com", USER_ID, true);
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode)).thenAnswer(invocation -> Optional.of(toRedirectTarget(url)));
+
+        assertEquals("https://example.com", urlService.getOriginalUrl(shortCode));
+
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly() && definition.getTimeout() == 2));
+    }
+
+    @Test
+    void deleteUrlShouldEvictCachedRedirectTarget() {
+        Long urlId = 1L;
+        String shortCode = "abc123";
+        ShortenedUrl url = createShortenedUrl(urlId, shortCode, "https://example.com", USER_ID, true);
+
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode)).thenAnswer(invocation -> Optional.of(toRedirectTarget(url)));
+        when(shortenedUrlRepository.findById(urlId)).thenReturn(Optional.of(url));
+        when(shortenedUrlRepository.save(any(ShortenedUrl.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        urlService.getOriginalUrl(shortCode);
+        urlService.deleteUrl(urlId, USER_ID);
+
+        assertThrows(BadRequestException.class, () -> urlService.getOriginalUrl(shortCode));
+        verify(shortenedUrlRepository, times(2)).findRedirectTargetByShortCode(shortCode);
+    }
+
+    @Test
+    void deactivateUrlsShouldUpdateInChunksAndEvictCachedRedirectTargets() {
+        String shortCode = "abc123";
+        ShortenedUrl url = createShortenedUrl(1L, shortCode, "https://example.com", USER_ID, true);
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1_500; id++) {
+            ids.add(id);
+        }
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode))
+                .thenReturn(Optional.of(new RedirectTarget("https://example.com", true)), Optional.of(new RedirectTarget("https://example.com", false)));
+        when(shortenedUrlRepository.findActiveListRowsByUidAndIdIn(eq(USER_ID), anyCollection()))
+                .thenReturn(List.of(toRow(url)), List.of());
+        when(shortenedUrlRepository.deactivateByUidAndIdIn(eq(USER_ID), eq(List.of(1L)), any())).thenReturn(1);
+
+        urlService.getOriginalUrl(shortCode);
+        long deactivated = urlService.deactivateUrls(ids, USER_ID);
+
+        assertEquals(1, deactivated);
+        verify(shortenedUrlRepository, times(2)).findActiveListRowsByUidAndIdIn(eq(USER_ID), anyCollection());
+        verify(shortenedUrlRepository, times(1)).deactivateByUidAndIdIn(anyString(), anyCollection(), any());
+        verify(shortenedUrlRepository, never()).findById(anyLong());
+        verify(redirectSnapshotService).update(shortCode, new RedirectTarget("https://example.com", false));
+        verify(userRepository, times(1)).incrementLinksVersion(USER_ID);
+        assertThrows(BadRequestException.class, () -> urlService.getOriginalUrl(shortCode));
+    }
+
+    @Test
+    void deactivateUrlsCreatedBetweenShouldPageByKeysetUntilAShortChunk() {
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now();
+        List<UrlListRow> fullChunk = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            fullChunk.add(new UrlListRow(id, "code" + id, "https://example.com", true, from.plusSeconds(id), 0L));
+        }
+        UrlListRow last = fullChunk.get(999);
+        when(shortenedUrlRepository.findActiveListRowsCreatedBetweenAfter(
+                USER_ID, from, to, from, Long.MIN_VALUE, Limit.of(1_000))).thenReturn(fullChunk);
+        when(shortenedUrlRepository.findActiveListRowsCreatedBetweenAfter(
+                USER_ID, from, to, last.createdAt(), last.id(), Limit.of(1_000))).thenReturn(List.of());
+        when(shortenedUrlRepository.deactivateByUidAndIdIn(eq(USER_ID), anyCollection(), any())).thenReturn(1_000);
+
+        assertEquals(1_000, urlService.deactivateUrlsCreatedBetween(from, to, USER_ID));
+        verify(redirectCache).invalidateAll(argThat(codes -> codes.size() == 1_000));
     }
 
     @Test
@@ -173,21 +480,71 @@ class UrlServiceImplTest {
         String originalUrl = "https://example.com";
         ShortenedUrl url = createShortenedUrl(1L, shortCode, originalUrl, USER_ID, true);
         
-        when(shortenedUrlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(url));
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode)).thenAnswer(invocation -> Optional.of(toRedirectTarget(url)));
 
         String result = urlService.getOriginalUrl(shortCode);
 
         assertEquals(originalUrl, result);
-        verify(shortenedUrlRepository).findByShortCode(shortCode);
+        verify(shortenedUrlRepository).findRedirectTargetByShortCode(shortCode);
+    }
+
+    @Test
+    void getOriginalUrlShouldServeRepeatedLookupsFromCache() {
+        String shortCode = "abc123";
+        String originalUrl = "https://example.com";
+        ShortenedUrl url = createShortenedUrl(1L, shortCode, originalUrl, USER_ID, true);
+
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode)).thenAnswer(invocation -> Optional.of(toRedirectTarget(url)));
+
+        assertEquals(originalUrl, urlService.getOriginalUrl(shortCode));
+        assertEquals(originalUrl, urlService.getOriginalUrl(shortCode));
+
+        verify(shortenedUrlRepository, times(1)).findRedirectTargetByShortCode(shortCode);
+    }
+
+    @Test
+    void getOriginalUrlShouldCacheDeactivatedState() {
+        String shortCode = "abc123";
+        ShortenedUrl url = createShortenedUrl(1L, shortCode, "https://example.com", USER_ID, false);
+
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode)).thenAnswer(invocation -> Optional.of(toRedirectTarget(url)));
+
+        assertThrows(BadRequestException.class, () -> urlService.getOriginalUrl(shortCode));
+        assertThrows(BadRequestException.class, () -> urlService.getOriginalUrl(shortCode));
+
+        verify(shortenedUrlRepository, times(1)).findRedirectTargetByShortCode(shortCode);
     }
 
     @Test
     void getOriginalUrlWithNonExistentShortCodeShouldThrowResourceNotFoundException() {
         String shortCode = "invalid";
-        when(shortenedUrlRepository.findByShortCode(shortCode)).thenReturn(Optional.empty());
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> urlService.getOriginalUrl(shortCode));
-        verify(shortenedUrlRepository).findByShortCode(shortCode);
+        verify(shortenedUrlRepository).findRedirectTargetByShortCode(shortCode);
+    }
+
+    @Test
+    void getOriginalUrlFoundInSnapshotShouldNotQueryDatabase() {
+        String shortCode = "abc123";
+        String originalUrl = "https://example.com";
+        when(redirectSnapshotService.lookup(shortCode)).thenReturn(Optional.of(new RedirectTarget(originalUrl, true)));
+
+        assertEquals(originalUrl, urlService.getOriginalUrl(shortCode));
+        verify(shortenedUrlRepository, never()).findRedirectTargetByShortCode(anyString());
+    }
+
+    @Test
+    void getOriginalUrlRejectedByBloomFilterShouldNotQueryDatabase() {
+        String shortCode = "zzzzzz";
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> urlService.getOriginalUrl(shortCode));
+        verify(shortenedUrlRepository, never()).findRedirectTargetByShortCode(anyString());
     }
 
     @Test
@@ -195,10 +552,34 @@ class UrlServiceImplTest {
         String shortCode = "abc123";
         ShortenedUrl url = createShortenedUrl(1L, shortCode, "https://example.com", USER_ID, false);
         
-        when(shortenedUrlRepository.findByShortCode(shortCode)).thenReturn(Optional.of(url));
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode)).thenAnswer(invocation -> Optional.of(toRedirectTarget(url)));
+
+        assertThrows(BadRequestException.class, () -> urlService.getOriginalUrl(shortCode));
+        verify(shortenedUrlRepository).findRedirectTargetByShortCode(shortCode);
+    }
+
+    @Test
+    void getOriginalUrlWithExpiredUrlShouldThrowBadRequestExceptionWithoutExtraQuery() {
+        String shortCode = "abc123";
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode)).thenReturn(Optional.of(
+                new RedirectTarget("https://example.com", true, LocalDateTime.now().minusMinutes(1))));
 
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> urlService.getOriginalUrl(shortCode));
+        assertEquals("This URL has expired", exception.getMessage());
         assertThrows(BadRequestException.class, () -> urlService.getOriginalUrl(shortCode));
-        verify(shortenedUrlRepository).findByShortCode(shortCode);
+        verify(shortenedUrlRepository, times(1)).findRedirectTargetByShortCode(shortCode);
+    }
+
+    @Test
+    void getOriginalUrlShouldRedirectUntilExpiry() {
+        String shortCode = "abc123";
+        when(shortCodeBloomFilter.mightContain(shortCode)).thenReturn(true);
+        when(shortenedUrlRepository.findRedirectTargetByShortCode(shortCode)).thenReturn(Optional.of(
+                new RedirectTarget("https://example.com", true, LocalDateTime.now().plusDays(1))));
+
+        assertEquals("https://example.com", urlService.getOriginalUrl(shortCode));
     }
 
     private ShortenedUrl createShortenedUrl(Long id, String shortCode, String originalUrl, String uid, boolean active) {
@@ -211,4 +592,13 @@ class UrlServiceImplTest {
         url.setCreatedAt(LocalDateTime.now());
         return url;
     }
+
+    private UrlListRow toRow(ShortenedUrl url) {
+        return new UrlListRow(url.getId(), url.getShortCode(), url.getOriginalUrl(), url.getActive(),
+                url.getCreatedAt(), url.getClickCount());
+    }
+
+    private RedirectTarget toRedirectTarget(ShortenedUrl url) {
+        return new RedirectTarget(url.getOriginalUrl(), url.getActive());
+    }
 }
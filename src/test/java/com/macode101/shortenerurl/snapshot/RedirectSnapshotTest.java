@@ -0,0 +1,95 @@
+package com.macode101.shortenerurl.snapshot;
+
+import com.macode101.shortenerurl.dto.RedirectEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lookupShouldReturnUrlForEveryWrittenCode() throws Exception {
+        List<RedirectEntry> entries = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            entries.add(new RedirectEntry(randomCode(random), "https://example.com/" + i, true));
+        }
+        Path file = tempDir.resolve("snapshot.bin");
+
+        int written = RedirectSnapshotWriter.write(entries.stream(), file, 1234L);
+        RedirectSnapshot snapshot = RedirectSnapshot.open(file);
+
+        assertEquals(entries.size(), written);
+        assertEquals(entries.size(), snapshot.entryCount());
+        assertEquals(1234L, snapshot.createdAtMillis());
+        assertEquals(Files.size(file), snapshot.fileSize());
+        for (RedirectEntry entry : entries) {
+            assertEquals(entry.originalUrl(), snapshot.lookup(entry.shortCode()));
+        }
+    }
+
+    @Test
+    void lookupShouldReturnNullForUnknownCodes() throws Exception {
+        Path file = tempDir.resolve("snapshot.bin");
+        RedirectSnapshotWriter.write(Stream.of(
+                new RedirectEntry("abc", "https://example.com/a", true),
+                new RedirectEntry("abcd1234", "https://example.com/b", true)
+        ), file, 0L);
+
+        RedirectSnapshot snapshot = RedirectSnapshot.open(file);
+
+        assertNull(snapshot.lookup("ab"));
+        assertNull(snapshot.lookup("abcd"));
+        assertNull(snapshot.lookup("abcd12345"));
+        assertNull(snapshot.lookup(""));
+        assertEquals("https://example.com/b", snapshot.lookup("abcd1234"));
+    }
+
+    @Test
+    void lookupShouldPreserveNonAsciiUrls() throws Exception {
+        Path file = tempDir.resolve("snapshot.bin");
+        String url = "https://example.com/café?q=東京";
+        RedirectSnapshotWriter.write(Stream.of(new RedirectEntry("Xy9", url, true)), file, 0L);
+
+        assertEquals(url, RedirectSnapshot.open(file).lookup("Xy9"));
+    }
+
+    @Test
+    void writeShouldReplaceExistingSnapshot() throws Exception {
+        Path file = tempDir.resolve("snapshot.bin");
+        RedirectSnapshotWriter.write(Stream.of(new RedirectEntry("old", "https://old.example.com", true)), file, 0L);
+        RedirectSnapshot previous = RedirectSnapshot.open(file);
+
+        RedirectSnapshotWriter.write(Stream.of(new RedirectEntry("new", "https://new.example.com", true)), file, 1L);
+        RedirectSnapshot current = RedirectSnapshot.open(file);
+
+        assertEquals("https://old.example.com", previous.lookup("old"));
+        assertNull(current.lookup("old"));
+        assertEquals("https://new.example.com", current.lookup("new"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(Collections.singletonList(file), files.toList());
+        }
+    }
+
+    private static String randomCode(Random random) {
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+        StringBuilder code = new StringBuilder();
+        int length = 6 + random.nextInt(3);
+        for (int i = 0; i < length; i++) {
+            code.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return code.toString();
+    }
+}
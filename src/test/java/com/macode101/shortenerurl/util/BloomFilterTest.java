@@ -0,0 +1,56 @@
+package com.macode101.shortenerurl.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContainShouldReturnTrueForEveryInsertedValue() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("code" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("code" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateShouldStayNearConfiguredRate() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("code" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("missing" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "False positive count too high: " + falsePositives);
+    }
+
+    @Test
+    void approximateElementCountShouldBeCloseToInsertedCount() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 5_000; i++) {
+            filter.put("code" + i);
+        }
+
+        long estimate = filter.approximateElementCount();
+
+        assertTrue(estimate > 4_500 && estimate < 5_500, "Unexpected estimate: " + estimate);
+    }
+
+    @Test
+    void createWithInvalidFalsePositiveRateShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1));
+    }
+}
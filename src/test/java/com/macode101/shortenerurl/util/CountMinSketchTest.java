@@ -0,0 +1,50 @@
+package com.macode101.shortenerurl.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimateShouldNeverUndercount() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (int i = 0; i < 500; i++) {
+            for (int j = 0; j <= i % 10; j++) {
+                sketch.add("code" + i);
+            }
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(sketch.estimate("code" + i) >= i % 10 + 1);
+        }
+    }
+
+    @Test
+    void addShouldReturnCurrentEstimate() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+
+        assertEquals(1, sketch.add("abc"));
+        assertEquals(2, sketch.add("abc"));
+        assertEquals(2, sketch.estimate("abc"));
+        assertEquals(0, sketch.estimate("other"));
+    }
+
+    @Test
+    void decayShouldHalveCounts() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (int i = 0; i < 100; i++) {
+            sketch.add("abc");
+        }
+
+        sketch.decay();
+
+        assertEquals(50, sketch.estimate("abc"));
+    }
+
+    @Test
+    void constructorShouldRejectNonPositiveDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(16, 0));
+    }
+}
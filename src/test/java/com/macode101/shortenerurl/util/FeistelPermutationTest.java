@@ -0,0 +1,50 @@
+package com.macode101.shortenerurl.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeistelPermutationTest {
+
+    @Test
+    void shouldBeBijectionOnDomain() {
+        int domain = 3_844;
+        FeistelPermutation permutation = new FeistelPermutation(domain, "key");
+        BitSet seen = new BitSet(domain);
+
+        for (int i = 0; i < domain; i++) {
+            long permuted = permutation.permute(i);
+            assertTrue(permuted >= 0 && permuted < domain, "out of domain: " + permuted);
+            assertFalse(seen.get((int) permuted), "duplicate output: " + permuted);
+            seen.set((int) permuted);
+        }
+    }
+
+    @Test
+    void shouldDependOnKey() {
+        FeistelPermutation first = new FeistelPermutation(1L << 40, "first");
+        FeistelPermutation second = new FeistelPermutation(1L << 40, "second");
+
+        assertNotEquals(first.permute(12_345), second.permute(12_345));
+        assertEquals(first.permute(12_345), new FeistelPermutation(1L << 40, "first").permute(12_345));
+    }
+
+    @Test
+    void shouldScatterConsecutiveValues() {
+        FeistelPermutation permutation = new FeistelPermutation(1L << 40, "key");
+
+        long distance = Math.abs(permutation.permute(1_000) - permutation.permute(1_001));
+
+        assertTrue(distance > 1_000, "consecutive inputs mapped close together: " + distance);
+    }
+
+    @Test
+    void shouldRejectValuesOutsideDomain() {
+        FeistelPermutation permutation = new FeistelPermutation(100, "key");
+
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(100));
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(-1));
+    }
+}
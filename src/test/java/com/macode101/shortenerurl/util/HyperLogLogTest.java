@@ -0,0 +1,129 @@
+package com.macode101.shortenerurl.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    private static long hash(int value) {
+        return Hashing.hash64("visitor-" + value, Hashing.SEED_PRIMARY);
+    }
+
+    @Test
+    void emptySketchShouldEstimateZero() {
+        assertEquals(0, new HyperLogLog(12).estimate());
+    }
+
+    @Test
+    void shouldIgnoreDuplicates() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add(hash(i % 10));
+        }
+
+        assertEquals(10, sketch.estimate());
+    }
+
+    @Test
+    void shouldEstimateLargeCardinalitiesWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        int distinct = 100_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.add(hash(i));
+        }
+
+        double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+        assertTrue(error < 3 * sketch.relativeStandardError(), "relative error " + error);
+    }
+
+    @Test
+    void mergeShouldEstimateUnionAndBeIdempotent() {
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 20_000; i++) {
+            first.add(hash(i));
+            second.add(hash(i + 10_000));
+        }
+
+        first.merge(second);
+        long union = first.estimate();
+        first.merge(second);
+
+        assertEquals(union, first.estimate());
+        assertEquals(30_000, union, 30_000 * 3 * first.relativeStandardError());
+    }
+
+    @Test
+    void shouldRoundTripThroughBytes() {
+        HyperLogLog sketch = new HyperLogLog(10);
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add(hash(i));
+        }
+
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        assertEquals(HyperLogLog.serializedSize(10), bytes.length);
+        assertEquals(10, restored.precision());
+        assertEquals(sketch.estimate(), restored.estimate());
+    }
+
+    @Test
+    void shouldStaySparseUntilDenseIsSmallerAndEstimateTheSameInBothForms() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        HyperLogLog reference = new HyperLogLog(12);
+        for (int i = 0; i < 200; i++) {
+            sketch.add(hash(i));
+        }
+
+        assertTrue(sketch.isSparse());
+        byte[] sparseBytes = sketch.toBytes();
+        assertTrue(sparseBytes.length < 200 * 3 + 2, "sparse size " + sparseBytes.length);
+        assertEquals(sketch.estimate(), HyperLogLog.fromBytes(sparseBytes).estimate());
+
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add(hash(i));
+        }
+        reference.merge(HyperLogLog.fromBytes(sparseBytes));
+        for (int i = 200; i < 5_000; i++) {
+            reference.add(hash(i));
+        }
+
+        assertFalse(sketch.isSparse());
+        assertEquals(HyperLogLog.serializedSize(12), sketch.toBytes().length);
+        assertEquals(sketch.estimate(), reference.estimate());
+    }
+
+    @Test
+    void mergeShouldCombineSparseAndDenseSketches() {
+        HyperLogLog sparse = new HyperLogLog(12);
+        HyperLogLog dense = new HyperLogLog(12);
+        for (int i = 0; i < 100; i++) {
+            sparse.add(hash(i));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            dense.add(hash(i + 50));
+        }
+
+        HyperLogLog fromSparse = new HyperLogLog(12);
+        fromSparse.merge(sparse);
+        fromSparse.merge(dense);
+        dense.merge(sparse);
+
+        assertEquals(dense.estimate(), fromSparse.estimate());
+        assertArrayEquals(dense.toBytes(), fromSparse.toBytes());
+    }
+
+    @Test
+    void shouldRejectMergingDifferentPrecisions() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+    }
+
+    @Test
+    void shouldRejectCorruptSerialization() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] {12, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] {(byte) 0x8C, 0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] {(byte) 0x8C, 0x10, 0, 1}));
+    }
+}
@@ -0,0 +1,77 @@
+package com.macode101.shortenerurl.util;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class PooledShortCodeGeneratorTest {
+
+    private final ShortenedUrlRepository repository = mock(ShortenedUrlRepository.class);
+    private final AtomicInteger counter = new AtomicInteger();
+    private final ShortCodeGenerator candidates = () -> "code" + counter.incrementAndGet();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PooledShortCodeGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationConfiguration.Pool config = new ApplicationConfiguration.Pool();
+        config.setSize(100);
+        config.setLowWaterMark(0);
+        config.setRefillBatchSize(25);
+        config.setFallbackBatchSize(4);
+        generator = new PooledShortCodeGenerator(candidates, repository, config, meterRegistry);
+        when(repository.findExistingShortCodes(anyCollection())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.shutdown();
+    }
+
+    @Test
+    void refillShouldFillPoolWithOneQueryPerBatch() {
+        generator.refill();
+
+        assertEquals(100, generator.size());
+        verify(repository, times(4)).findExistingShortCodes(anyCollection());
+        verify(repository, never()).existsByShortCode(anyString());
+    }
+
+    @Test
+    void refillShouldDiscardCodesAlreadyInUse() {
+        when(repository.findExistingShortCodes(anyCollection())).thenReturn(List.of("code1", "code2"));
+
+        generator.refill();
+        Set<String> handedOut = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            handedOut.add(generator.generate());
+        }
+
+        assertFalse(handedOut.contains("code1"));
+        assertFalse(handedOut.contains("code2"));
+        assertEquals(100, handedOut.size());
+    }
+
+    @Test
+    void generateShouldFallBackToSynchronousBatchWhenPoolIsEmpty() {
+        when(repository.findExistingShortCodes(anyCollection())).thenReturn(List.of("code1"));
+
+        String shortCode = generator.generate();
+
+        assertEquals("code2", shortCode);
+        assertEquals(1.0, meterRegistry.get("short_code.pool.fallbacks").counter().count());
+        assertTrue(generator.size() >= 2, "remaining fallback codes should be pooled");
+    }
+}
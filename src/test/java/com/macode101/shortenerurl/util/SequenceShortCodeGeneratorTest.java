@@ -0,0 +1,68 @@
+package com.macode101.shortenerurl.util;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.exception.UrlShortenerException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceShortCodeGeneratorTest {
+
+    private static ApplicationConfiguration.ShortCode config(int blockSize) {
+        ApplicationConfiguration.ShortCode config = new ApplicationConfiguration.ShortCode();
+        config.setBlockSize(blockSize);
+        config.setPermutationKey("test-key");
+        return config;
+    }
+
+    @Test
+    void shouldGenerateUniqueSevenCharacterBase62Codes() {
+        AtomicLong sequence = new AtomicLong();
+        SequenceShortCodeGenerator generator = new SequenceShortCodeGenerator(sequence::incrementAndGet, config(50));
+        Set<String> codes = new HashSet<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            String code = generator.generate();
+            assertEquals(7, code.length());
+            assertTrue(code.chars().allMatch(c -> Base62.ALPHABET.indexOf(c) >= 0), code);
+            assertTrue(codes.add(code), "duplicate code " + code);
+        }
+    }
+
+    @Test
+    void shouldLeaseOneSequenceValuePerBlock() {
+        AtomicLong sequence = new AtomicLong();
+        SequenceShortCodeGenerator generator = new SequenceShortCodeGenerator(sequence::incrementAndGet, config(100));
+
+        for (int i = 0; i < 250; i++) {
+            generator.generate();
+        }
+
+        assertEquals(3, sequence.get());
+    }
+
+    @Test
+    void shouldNotRepeatCodesAcrossGeneratorsSharingSequence() {
+        AtomicLong sequence = new AtomicLong();
+        SequenceShortCodeGenerator first = new SequenceShortCodeGenerator(sequence::incrementAndGet, config(10));
+        SequenceShortCodeGenerator second = new SequenceShortCodeGenerator(sequence::incrementAndGet, config(10));
+        Set<String> codes = new HashSet<>();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(codes.add(first.generate()));
+            assertTrue(codes.add(second.generate()));
+        }
+    }
+
+    @Test
+    void shouldFailWhenCodeSpaceIsExhausted() {
+        long pastLastBlock = SequenceShortCodeGenerator.CODE_SPACE / 100 + 1;
+        SequenceShortCodeGenerator generator = new SequenceShortCodeGenerator(() -> pastLastBlock, config(100));
+
+        assertThrows(UrlShortenerException.class, generator::generate);
+    }
+}
@@ -0,0 +1,124 @@
+package com.macode101.shortenerurl.util;
+
+import com.macode101.shortenerurl.exception.ResourceNotFoundException;
+import com.macode101.shortenerurl.exception.UrlShortenerException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForSameKeyShouldShareOneLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("abc", key -> {
+            loads.incrementAndGet();
+            await(release);
+            return "https://example.com";
+        }));
+        waitUntil(() -> singleFlight.inFlightCount() == 1);
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("abc", key -> {
+                loads.incrementAndGet();
+                return "unexpected";
+            })));
+        }
+        waitUntil(() -> singleFlight.coalescedCount() == 5);
+        release.countDown();
+
+        assertEquals("https://example.com", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("https://example.com", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void failureShouldPropagateToEveryWaiter() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("abc", key -> {
+            await(release);
+            throw new ResourceNotFoundException("Short code not found: " + key);
+        }));
+        waitUntil(() -> singleFlight.inFlightCount() == 1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute("abc", key -> "unexpected"));
+        waitUntil(() -> singleFlight.coalescedCount() == 1);
+        release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ResourceNotFoundException.class, leaderFailure.getCause());
+        assertInstanceOf(ResourceNotFoundException.class, followerFailure.getCause());
+    }
+
+    @Test
+    void waiterShouldTimeOutAndReleaseHungLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.submit(() -> singleFlight.execute("abc", key -> {
+            await(release);
+            return "late";
+        }));
+        waitUntil(() -> singleFlight.inFlightCount() == 1);
+
+        assertThrows(UrlShortenerException.class, () -> singleFlight.execute("abc", key -> "unexpected"));
+        assertEquals("fresh", singleFlight.execute("abc", key -> "fresh"));
+        release.countDown();
+    }
+
+    @Test
+    void differentKeysShouldLoadIndependently() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(1));
+
+        assertEquals("a", singleFlight.execute("a", key -> key));
+        assertEquals("b", singleFlight.execute("b", key -> key));
+        assertEquals(0, singleFlight.coalescedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.macode101.shortenerurl.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkAppendLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static PendingLink link(int i) {
+        return new PendingLink("code" + i, "user", "https://example.com/" + i,
+                LocalDateTime.of(2026, 1, 1, 12, 0).plusSeconds(i).withNano(123_456_789));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void reopenedLogShouldReplaySealedRecordsInOrder() throws IOException {
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            log.sync(log.write(link(1)));
+            log.rotate();
+            log.sync(log.write(link(2)));
+        }
+
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            List<LinkAppendLog.Replayed> replayed = log.readSealed();
+
+            assertEquals(List.of(link(1), link(2)), replayed.stream().map(LinkAppendLog.Replayed::link).toList());
+            assertTrue(replayed.get(0).segment() < replayed.get(1).segment());
+            assertTrue(replayed.get(1).segment() < log.activeSegment());
+        }
+    }
+
+    @Test
+    void replayShouldStopAtTornRecord() throws IOException {
+        Path segment;
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            log.write(link(1));
+            log.write(link(2));
+            segment = directory.resolve(String.format("links-%020d.log", log.activeSegment()));
+        }
+        long size = Files.size(segment);
+        try (var channel = Files.newByteChannel(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            assertEquals(List.of(link(1)), log.readSealed().stream().map(LinkAppendLog.Replayed::link).toList());
+        }
+    }
+
+    @Test
+    void replayShouldStopAtCorruptRecord() throws IOException {
+        Path segment;
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            log.write(link(1));
+            segment = directory.resolve(String.format("links-%020d.log", log.activeSegment()));
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(segment, bytes);
+
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            assertTrue(log.readSealed().isEmpty());
+        }
+    }
+
+    @Test
+    void rotateShouldOnlySealNonEmptySegmentsAndDeleteThroughShouldRemoveThem() throws IOException {
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            long first = log.activeSegment();
+            assertEquals(first - 1, log.rotate());
+
+            log.write(link(1));
+            assertEquals(first, log.rotate());
+            assertEquals(2, segmentCount());
+
+            log.deleteThrough(first);
+            assertEquals(1, segmentCount());
+        }
+    }
+
+    @Test
+    void concurrentAppendsShouldAllBeDurableAndReplayed() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            List<Future<?>> futures = Stream.iterate(0, i -> i + 1).limit(400)
+                    .<Future<?>>map(i -> executor.submit(() -> {
+                        log.sync(log.write(link(i)));
+                        return null;
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            assertEquals(400, log.readSealed().stream().map(replayed -> replayed.link().shortCode()).distinct().count());
+        }
+    }
+}
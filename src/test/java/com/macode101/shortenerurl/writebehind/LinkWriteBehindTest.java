@@ -0,0 +1,202 @@
+package com.macode101.shortenerurl.writebehind;
+
+import com.macode101.shortenerurl.config.ApplicationConfiguration;
+import com.macode101.shortenerurl.dto.ShortCodeOwner;
+import com.macode101.shortenerurl.entity.ShortenedUrl;
+import com.macode101.shortenerurl.repository.ShortenedUrlRepository;
+import com.macode101.shortenerurl.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class LinkWriteBehindTest {
+
+    @TempDir
+    Path directory;
+
+    private final ShortenedUrlRepository repository = mock(ShortenedUrlRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ApplicationConfiguration config = new ApplicationConfiguration();
+
+    @BeforeEach
+    void setUp() {
+        config.getShortCode().setGenerator("sequence");
+        config.getWriteBehind().setEnabled(true);
+        config.getWriteBehind().setPath(directory.toString());
+        config.getWriteBehind().setBatchSize(2);
+        when(repository.findShortCodeOwners(anyCollection())).thenReturn(List.of());
+    }
+
+    private LinkWriteBehind newWriteBehind() {
+        return new LinkWriteBehind(repository, userRepository, config, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushShouldInsertPendingLinksInBatchesAndDeleteFlushedSegments() throws IOException {
+        LinkWriteBehind writeBehind = newWriteBehind();
+        writeBehind.append("code1", "user", "https://example.com/1");
+        writeBehind.append("code2", "user", "https://example.com/2");
+        writeBehind.append("code3", "user", "https://example.com/3");
+
+        assertEquals("https://example.com/2", writeBehind.pendingTarget("code2").originalUrl());
+
+        writeBehind.flush();
+
+        verify(repository, times(2)).saveAllAndFlush(anyList());
+        verify(repository).saveAllAndFlush(argThat(urls -> ((List<ShortenedUrl>) urls).size() == 1
+                && ((List<ShortenedUrl>) urls).get(0).getShortCode().equals("code3")));
+        assertNull(writeBehind.pendingTarget("code2"));
+        assertEquals(1, segmentCount());
+        verify(userRepository, times(2)).incrementLinksVersion("user");
+    }
+
+    @Test
+    void failedFlushShouldKeepLinksPendingAndRetry() {
+        LinkWriteBehind writeBehind = newWriteBehind();
+        writeBehind.append("code1", "user", "https://example.com/1");
+        when(repository.saveAllAndFlush(anyList()))
+                .thenThrow(new QueryTimeoutException("down"))
+                .thenThrow(new QueryTimeoutException("down"))
+                .thenReturn(List.of());
+
+        writeBehind.flush();
+        assertNotNull(writeBehind.pendingTarget("code1"));
+
+        writeBehind.flush();
+        assertNull(writeBehind.pendingTarget("code1"));
+        verify(repository, times(3)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rowThatKeepsFailingShouldBeParkedWithoutStallingTheRest() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LinkWriteBehind writeBehind = new LinkWriteBehind(repository, userRepository, config,
+                mock(PlatformTransactionManager.class), meterRegistry);
+        writeBehind.append("code1", "user", "https://example.com/1");
+        writeBehind.append("code2", "user", "https://example.com/2");
+        writeBehind.append("code3", "user", "https://example.com/3");
+        when(repository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<ShortenedUrl> urls = invocation.getArgument(0);
+            if (urls.stream().anyMatch(url -> url.getShortCode().equals("code1"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return urls;
+        });
+
+        writeBehind.flush();
+
+        verify(repository).saveAllAndFlush(argThat(urls -> ((List<ShortenedUrl>) urls).size() == 1
+                && ((List<ShortenedUrl>) urls).get(0).getShortCode().equals("code2")));
+        verify(repository).saveAllAndFlush(argThat(urls -> ((List<ShortenedUrl>) urls).size() == 1
+                && ((List<ShortenedUrl>) urls).get(0).getShortCode().equals("code3")));
+        assertNull(writeBehind.pendingTarget("code1"));
+        assertNull(writeBehind.pendingTarget("code2"));
+        assertEquals(1.0, meterRegistry.get("links.write.behind.parked").tag("reason", "error").counter().count());
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            assertEquals(List.of("code1"), log.readParked().stream().map(PendingLink::shortCode).toList());
+            assertTrue(log.readSealed().isEmpty());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void restartShouldReplayUnflushedLinksAndSkipRowsAlreadyInserted() {
+        LinkWriteBehind crashed = newWriteBehind();
+        crashed.append("code1", "user", "https://example.com/1");
+        crashed.append("code2", "user", "https://example.com/2");
+
+        LinkWriteBehind restarted = newWriteBehind();
+        assertEquals("https://example.com/1", restarted.pendingTarget("code1").originalUrl());
+
+        when(repository.findShortCodeOwners(anyCollection()))
+                .thenReturn(List.of(new ShortCodeOwner("code1", "user", "https://example.com/1")));
+        restarted.flush();
+
+        verify(repository).saveAllAndFlush(argThat(urls -> ((List<ShortenedUrl>) urls).size() == 1
+                && ((List<ShortenedUrl>) urls).get(0).getShortCode().equals("code2")));
+        assertNull(restarted.pendingTarget("code1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushShouldParkLinksWhoseShortCodeBelongsToAnotherRow() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LinkWriteBehind writeBehind = new LinkWriteBehind(repository, userRepository, config,
+                mock(PlatformTransactionManager.class), meterRegistry);
+        writeBehind.append("code1", "user", "https://example.com/1");
+        writeBehind.append("code2", "user", "https://example.com/2");
+        when(repository.findShortCodeOwners(anyCollection()))
+                .thenReturn(List.of(new ShortCodeOwner("code1", "other", "https://example.com/other")));
+
+        writeBehind.flush();
+
+        verify(repository).saveAllAndFlush(argThat(urls -> ((List<ShortenedUrl>) urls).size() == 1
+                && ((List<ShortenedUrl>) urls).get(0).getShortCode().equals("code2")));
+        assertNull(writeBehind.pendingTarget("code1"));
+        assertEquals(1.0, meterRegistry.get("links.write.behind.parked").tag("reason", "conflict").counter().count());
+        try (LinkAppendLog log = LinkAppendLog.open(directory)) {
+            assertEquals(List.of("code1"), log.readParked().stream().map(PendingLink::shortCode).toList());
+            assertTrue(log.readSealed().isEmpty());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replayShouldKeepTheOriginalCreationTime() throws InterruptedException {
+        LinkWriteBehind crashed = newWriteBehind();
+        LocalDateTime before = LocalDateTime.now();
+        crashed.append("code1", "user", "https://example.com/1");
+        LocalDateTime after = LocalDateTime.now();
+        Thread.sleep(20);
+
+        newWriteBehind().flush();
+
+        verify(repository).saveAllAndFlush(argThat(urls -> {
+            LocalDateTime createdAt = ((List<ShortenedUrl>) urls).get(0).getCreatedAt();
+            return !createdAt.isBefore(before) && !createdAt.isAfter(after);
+        }));
+    }
+
+    @Test
+    void shouldRefuseGeneratorsThatCannotGuaranteeUniqueness() {
+        config.getShortCode().setGenerator("random");
+
+        assertThrows(IllegalStateException.class, this::newWriteBehind);
+    }
+
+    @Test
+    void disabledWriteBehindShouldNotTouchTheFilesystem() throws IOException {
+        config.getWriteBehind().setEnabled(false);
+        LinkWriteBehind writeBehind = newWriteBehind();
+
+        writeBehind.flush();
+
+        assertFalse(writeBehind.isEnabled());
+        assertNull(writeBehind.pendingTarget("code1"));
+        assertEquals(0, segmentCount());
+    }
+}